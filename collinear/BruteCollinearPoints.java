@@ -11,26 +11,14 @@ import edu.princeton.cs.algs4.StdOut;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class BruteCollinearPoints {
     private final List<LineSegment> segmentsList = new ArrayList<>();
 
     // Finds all line segments containing 4 points
     public BruteCollinearPoints(Point[] points) {
-        if (points == null) throw new IllegalArgumentException("Argument is null.");
-        for (Point point : points) {
-            if (point == null) throw new IllegalArgumentException("Found null point in the array.");
-        }
-
-        Point[] sortedPoints = points.clone();
-        Arrays.sort(sortedPoints);
-
-        // check for duplicate points
-        for (int i = 1; i < sortedPoints.length; i++) {
-            if (sortedPoints[i].compareTo(sortedPoints[i - 1]) == 0) {
-                throw new IllegalArgumentException("Detected duplicate points.");
-            }
-        }
+        Point[] sortedPoints = sortedCopy(points);
 
         int n = sortedPoints.length;
         for (int i = 0; i < n - 3; i++) {
@@ -51,6 +39,58 @@ public class BruteCollinearPoints {
         }
     }
 
+    // Finds all maximal line segments containing at least minPoints points
+    public BruteCollinearPoints(Point[] points, int minPoints) {
+        forEachSegment(points, minPoints, segmentsList::add);
+    }
+
+    // Passes each maximal line segment containing at least minPoints points to
+    // action as soon as it is found. Every pair of points is tried as the two ends
+    // of a segment: it is one if no point on its line lies beyond either end and
+    // enough points lie between them, so each segment is found once, from its
+    // ends, in O(n^3) time and without storing any segment
+    public static void forEachSegment(Point[] points, int minPoints,
+                                      Consumer<? super LineSegment> action) {
+        if (minPoints < 2) throw new IllegalArgumentException("MinPoints must be at least 2.");
+        if (action == null) throw new IllegalArgumentException("Action is null.");
+        Point[] sortedPoints = sortedCopy(points);
+
+        int n = sortedPoints.length;
+        for (int i = 0; i < n - 1; i++) {
+            Point p = sortedPoints[i];
+            for (int j = i + 1; j < n; j++) {
+                double slope = p.slopeTo(sortedPoints[j]);
+                int count = 2;
+                for (int k = 0; k < n && count > 0; k++) {
+                    if (k == i || k == j || p.slopeTo(sortedPoints[k]) != slope) continue;
+                    // a collinear point beyond either end: the pair is not a segment's ends
+                    if (k < i || k > j) count = 0;
+                    else count++;
+                }
+                if (count >= minPoints) action.accept(new LineSegment(p, sortedPoints[j]));
+            }
+        }
+    }
+
+    // the points in natural order, after checking for null and duplicate points
+    private static Point[] sortedCopy(Point[] points) {
+        if (points == null) throw new IllegalArgumentException("Argument is null.");
+        for (Point point : points) {
+            if (point == null) throw new IllegalArgumentException("Found null point in the array.");
+        }
+
+        Point[] sortedPoints = points.clone();
+        Arrays.sort(sortedPoints);
+
+        // check for duplicate points
+        for (int i = 1; i < sortedPoints.length; i++) {
+            if (sortedPoints[i].compareTo(sortedPoints[i - 1]) == 0) {
+                throw new IllegalArgumentException("Detected duplicate points.");
+            }
+        }
+        return sortedPoints;
+    }
+
     // The number of line segments
     public int numberOfSegments() {
         return segmentsList.size();
@@ -61,6 +101,7 @@ public class BruteCollinearPoints {
         return segmentsList.toArray(new LineSegment[0]);
     }
 
+    // java BruteCollinearPoints input.txt [minPoints]
     public static void main(String[] args) {
 
         // read the n points from a file
@@ -82,8 +123,11 @@ public class BruteCollinearPoints {
         }
         StdDraw.show();
 
-        // print and draw the line segments
-        BruteCollinearPoints collinear = new BruteCollinearPoints(points);
+        // print and draw the line segments, optionally of another minimum size
+        BruteCollinearPoints collinear = args.length >= 2
+                                         ? new BruteCollinearPoints(points,
+                                                                    Integer.parseInt(args[1]))
+                                         : new BruteCollinearPoints(points);
         for (LineSegment segment : collinear.segments()) {
             StdOut.println(segment);
             segment.draw();
@@ -0,0 +1,83 @@
+/* *****************************************************************************
+ *  Compilation:  javac CollinearBenchmark.java
+ *  Execution:    java CollinearBenchmark n [workers] [seed]
+ *  Dependencies: FastCollinearPoints.java Point.java Stopwatch.java
+ *
+ *  Times FastCollinearPoints with every Grouping on two sets of n
+ *  distinct points:
+ *    uniform:   points drawn uniformly from the 32768-by-32768 grid, so
+ *               almost every slope around an origin is distinct
+ *    clustered: points drawn from a few small square blocks of the grid,
+ *               so many points share a slope and groups are large
+ *
+ *  Each case is run once to warm up the JIT and then ROUNDS times; the
+ *  fastest round is reported, with the number of segments found.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class CollinearBenchmark {
+    private static final int ROUNDS = 3;
+    private static final int RANGE = 32768;
+    private static final int CLUSTERS = 8;
+
+    // n distinct points uniform in the grid
+    private static Point[] uniform(int n, SplittableRandom random) {
+        return distinct(n, random, 1, RANGE);
+    }
+
+    // n distinct points in CLUSTERS blocks whose side leaves each about half full
+    private static Point[] clustered(int n, SplittableRandom random) {
+        int side = (int) Math.ceil(Math.sqrt(2.0 * n / CLUSTERS));
+        return distinct(n, random, CLUSTERS, side);
+    }
+
+    // n distinct points, each in a random one of clusters random side-by-side blocks
+    private static Point[] distinct(int n, SplittableRandom random, int clusters, int side) {
+        if ((long) clusters * side * side < n)
+            throw new IllegalArgumentException("Too many points for the blocks.");
+        int[] cornerX = new int[clusters];
+        int[] cornerY = new int[clusters];
+        for (int c = 0; c < clusters; c++) {
+            cornerX[c] = random.nextInt(RANGE - side + 1);
+            cornerY[c] = random.nextInt(RANGE - side + 1);
+        }
+        Set<Long> seen = new HashSet<>();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; ) {
+            int c = random.nextInt(clusters);
+            int x = cornerX[c] + random.nextInt(side);
+            int y = cornerY[c] + random.nextInt(side);
+            if (seen.add(((long) x << 32) | y)) points[i++] = new Point(x, y);
+        }
+        return points;
+    }
+
+    // time every grouping on the points
+    private static void run(String name, Point[] points, int workers) {
+        for (FastCollinearPoints.Grouping grouping : FastCollinearPoints.Grouping.values()) {
+            int segments = new FastCollinearPoints(points, grouping, workers).numberOfSegments();
+            double best = Double.POSITIVE_INFINITY;
+            for (int round = 0; round < ROUNDS; round++) {
+                Stopwatch timer = new Stopwatch();
+                new FastCollinearPoints(points, grouping, workers);
+                best = Math.min(best, timer.elapsedTime());
+            }
+            StdOut.printf("%-10s %-10s %8.3f s %8d segments%n", name, grouping, best, segments);
+        }
+    }
+
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int workers = args.length >= 2 ? Integer.parseInt(args[1]) : 1;
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        run("uniform", uniform(n, random), workers);
+        run("clustered", clustered(n, random), workers);
+    }
+}
@@ -11,12 +11,93 @@ import edu.princeton.cs.algs4.StdOut;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 public class FastCollinearPoints {
+    // below this many items, sort keys by insertion sort
+    private static final int INSERTION_SORT_CUTOFF = 10;
+    // origins scanned by one fork-join task
+    private static final int ORIGINS_PER_TASK = 16;
+    // the assignment's line size
+    private static final int DEFAULT_MIN_POINTS = 4;
     private final List<LineSegment> segmentsList = new ArrayList<>();
 
+    // how the points around each origin are grouped by slope
+    public enum Grouping {
+        COMPARATOR,  // sort a copy of the points with slopeOrder()
+        SORT,        // sort primitive slope keys with an index array, reusing the arrays
+        EXACT,       // like SORT, with exact slope keys from Point.slopeKey()
+        HASH         // count the slopes in a primitive hash table, in expected linear time
+    }
+
     // Finds all line segments containing 4 points
     public FastCollinearPoints(Point[] points) {
+        this(points, Grouping.COMPARATOR);
+    }
+
+    // Finds all line segments containing 4 points, grouping by slope as given
+    public FastCollinearPoints(Point[] points, Grouping grouping) {
+        this(points, grouping, 1);
+    }
+
+    // Finds all line segments containing 4 points, grouping by slope as given and
+    // scanning the origins on the given number of fork-join workers; the segments
+    // are the same, in the same order, for any number of workers
+    public FastCollinearPoints(Point[] points, Grouping grouping, int workers) {
+        this(points, grouping, workers, DEFAULT_MIN_POINTS);
+    }
+
+    // Finds all maximal line segments containing at least minPoints points, grouping
+    // by slope as given and scanning the origins on the given number of workers
+    public FastCollinearPoints(Point[] points, Grouping grouping, int workers, int minPoints) {
+        if (grouping == null) throw new IllegalArgumentException("Grouping is null.");
+        if (workers <= 0) throw new IllegalArgumentException("Workers must be positive.");
+        validate(minPoints);
+        Point[] sortedPoints = sortedCopy(points);
+
+        if (workers == 1) {
+            OriginScanner scanner = newScanner(sortedPoints, grouping);
+            for (int i = 0; i < sortedPoints.length; i++) {
+                scan(sortedPoints, scanner, i, minPoints, segmentsList::add);
+            }
+        }
+        else {
+            ThreadLocal<OriginScanner> scanners = ThreadLocal.withInitial(
+                    () -> newScanner(sortedPoints, grouping));
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            try {
+                segmentsList.addAll(pool.invoke(new OriginTask(
+                        sortedPoints, scanners, minPoints, 0, sortedPoints.length)));
+            }
+            finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Passes each maximal line segment containing at least minPoints points to
+    // action as soon as it is found, in the order segments() would list them;
+    // nothing but the scratch space of one origin is kept, however many there are
+    public static void forEachSegment(Point[] points, int minPoints, Grouping grouping,
+                                      Consumer<? super LineSegment> action) {
+        if (grouping == null) throw new IllegalArgumentException("Grouping is null.");
+        if (action == null) throw new IllegalArgumentException("Action is null.");
+        validate(minPoints);
+        Point[] sortedPoints = sortedCopy(points);
+        OriginScanner scanner = newScanner(sortedPoints, grouping);
+        for (int i = 0; i < sortedPoints.length; i++) {
+            scan(sortedPoints, scanner, i, minPoints, action);
+        }
+    }
+
+    private static void validate(int minPoints) {
+        if (minPoints < 2) throw new IllegalArgumentException("MinPoints must be at least 2.");
+    }
+
+    // the points in natural order, after checking for null and duplicate points
+    private static Point[] sortedCopy(Point[] points) {
         if (points == null) throw new IllegalArgumentException("Argument is null.");
         for (Point point : points) {
             if (point == null) throw new IllegalArgumentException("Found null point in the array.");
@@ -31,34 +112,282 @@ public class FastCollinearPoints {
                 throw new IllegalArgumentException("Detected duplicate points.");
             }
         }
+        return sortedPoints;
+    }
 
+    // pass the segments of at least minPoints points that start at sortedPoints[i] to
+    // action, with the scanner's primitive engine, or with a comparator if there is
+    // no scanner
+    private static void scan(Point[] sortedPoints, OriginScanner scanner, int i, int minPoints,
+                             Consumer<? super LineSegment> action) {
+        if (scanner != null) {
+            scanner.scan(i, minPoints, action);
+            return;
+        }
         int n = sortedPoints.length;
-        for (int i = 0; i < n; i++) {
-            Point origin = sortedPoints[i];
-            Point[] sortedBySlope = sortedPoints.clone();
-
-            // sort by slope relative to origin
-            Arrays.sort(sortedBySlope, origin.slopeOrder());
-
-            int count = 0;
-            for (int j = 1; j < n; j++) {
-                if (j == n - 1 || origin.slopeTo(sortedBySlope[j]) != origin.slopeTo(
-                        sortedBySlope[j + 1])) {
-                    if (count >= 2) {
-                        // Found a segment of 4 or more points
-                        Point start = sortedBySlope[j - count];
-                        Point end = sortedBySlope[j];
-                        if (origin.compareTo(start) < 0) {
-                            segmentsList.add(new LineSegment(origin, end));
-                        }
+        Point origin = sortedPoints[i];
+        Point[] sortedBySlope = sortedPoints.clone();
+
+        // sort by slope relative to origin
+        Arrays.sort(sortedBySlope, origin.slopeOrder());
+
+        int count = 0;
+        for (int j = 1; j < n; j++) {
+            if (j == n - 1 || origin.slopeTo(sortedBySlope[j]) != origin.slopeTo(
+                    sortedBySlope[j + 1])) {
+                if (count >= minPoints - 2) {
+                    // Found a segment of minPoints or more points
+                    Point start = sortedBySlope[j - count];
+                    Point end = sortedBySlope[j];
+                    if (origin.compareTo(start) < 0) {
+                        action.accept(new LineSegment(origin, end));
                     }
-                    count = 0;
                 }
-                else {
-                    count++;
+                count = 0;
+            }
+            else {
+                count++;
+            }
+        }
+    }
+
+    // scans origins lo to hi - 1, splitting the range at fixed points, and returns
+    // their segments in origin order; each segment is found only from its first
+    // point, so the concatenation has no duplicates
+    private static final class OriginTask extends RecursiveTask<List<LineSegment>> {
+        private static final long serialVersionUID = 1L;
+        private final Point[] sortedPoints;
+        private final ThreadLocal<OriginScanner> scanners;
+        private final int minPoints;
+        private final int lo;
+        private final int hi;
+
+        OriginTask(Point[] sortedPoints, ThreadLocal<OriginScanner> scanners, int minPoints,
+                   int lo, int hi) {
+            this.sortedPoints = sortedPoints;
+            this.scanners = scanners;
+            this.minPoints = minPoints;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected List<LineSegment> compute() {
+            if (hi - lo <= ORIGINS_PER_TASK) {
+                List<LineSegment> segments = new ArrayList<>();
+                OriginScanner scanner = scanners.get();
+                for (int i = lo; i < hi; i++) {
+                    scan(sortedPoints, scanner, i, minPoints, segments::add);
                 }
+                return segments;
             }
+            int mid = (lo + hi) >>> 1;
+            OriginTask left = new OriginTask(sortedPoints, scanners, minPoints, lo, mid);
+            OriginTask right = new OriginTask(sortedPoints, scanners, minPoints, mid, hi);
+            left.fork();
+            List<LineSegment> segments = right.compute();
+            List<LineSegment> merged = left.join();
+            merged.addAll(segments);
+            return merged;
+        }
+    }
+
+    // the primitive engine for the grouping, or null for the comparator scan
+    private static OriginScanner newScanner(Point[] sortedPoints, Grouping grouping) {
+        if (grouping == Grouping.COMPARATOR) return null;
+        return new OriginScanner(sortedPoints, grouping);
+    }
+
+    // Finds the segments that start at one origin. Each slope is computed once, as
+    // a long key, and the keys are sorted together with the indices of their
+    // points; the two arrays are reused for every origin. A key is either the
+    // double slope as a long with the same order, or the exact slope key, which
+    // is equal for equal slopes but not ordered by slope, so with exact keys the
+    // segments of one origin come in key order rather than slope order. Points
+    // are in natural order, so a group of minPoints - 1 or more points with one
+    // slope makes a segment that starts at the origin exactly when the origin's
+    // index is below all of theirs, and ends at the largest one. With HASH
+    // grouping the double keys go into a SlopeTable instead of being sorted
+    private static final class OriginScanner {
+        private final Point[] points;
+        private final boolean exact;
+        private final long[] keys;
+        private final int[] index;
+        private final SlopeTable table;
+
+        OriginScanner(Point[] points, Grouping grouping) {
+            this.points = points;
+            this.exact = grouping == Grouping.EXACT;
+            this.keys = new long[points.length];
+            this.index = new int[points.length];
+            this.table = grouping == Grouping.HASH ? new SlopeTable(points.length) : null;
         }
+
+        void scan(int origin, int minPoints, Consumer<? super LineSegment> action) {
+            Point p = points[origin];
+            if (table != null) {
+                table.clear();
+                for (int j = 0; j < points.length; j++) {
+                    if (j != origin) table.add(sortableBits(p.slopeTo(points[j])), j);
+                }
+                for (int g = 0; g < table.groups(); g++) {
+                    if (table.count(g) >= minPoints - 1 && origin < table.min(g)) {
+                        action.accept(new LineSegment(p, points[table.max(g)]));
+                    }
+                }
+                return;
+            }
+            int m = 0;
+            for (int j = 0; j < points.length; j++) {
+                if (j == origin) continue;
+                keys[m] = exact ? p.slopeKey(points[j]) : sortableBits(p.slopeTo(points[j]));
+                index[m++] = j;
+            }
+            sort(keys, index, 0, m - 1);
+            for (int lo = 0, hi; lo < m; lo = hi) {
+                int min = index[lo];
+                int max = index[lo];
+                for (hi = lo + 1; hi < m && keys[hi] == keys[lo]; hi++) {
+                    min = Math.min(min, index[hi]);
+                    max = Math.max(max, index[hi]);
+                }
+                if (hi - lo >= minPoints - 1 && origin < min) {
+                    action.accept(new LineSegment(p, points[max]));
+                }
+            }
+        }
+    }
+
+    // Open-addressing hash table from slope key to the number of points with that
+    // key and the smallest and largest of their indices, with linear probing. Keys
+    // are added in increasing index order, so a group's first index is its
+    // smallest and its last index its largest, and the groups are numbered in
+    // the order they first appear. Slots are marked with the generation that used
+    // them, so clearing the table for the next origin takes constant time
+    private static final class SlopeTable {
+        private final long[] keys;
+        private final int[] generation;  // slot in use if equal to current
+        private final int[] group;       // group number of the key in the slot
+        private final int[] count;       // per group
+        private final int[] min;
+        private final int[] max;
+        private final int mask;
+        private int current;
+        private int groups;
+
+        // a table for up to n keys, at most half full
+        SlopeTable(int n) {
+            int capacity = Integer.highestOneBit(Math.max(2, 2 * n - 1)) << 1;
+            keys = new long[capacity];
+            generation = new int[capacity];
+            group = new int[capacity];
+            count = new int[n];
+            min = new int[n];
+            max = new int[n];
+            mask = capacity - 1;
+        }
+
+        void clear() {
+            current++;
+            groups = 0;
+        }
+
+        void add(long key, int index) {
+            int slot = hash(key) & mask;
+            while (generation[slot] == current) {
+                if (keys[slot] == key) {
+                    int g = group[slot];
+                    count[g]++;
+                    max[g] = index;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            generation[slot] = current;
+            keys[slot] = key;
+            group[slot] = groups;
+            count[groups] = 1;
+            min[groups] = index;
+            max[groups] = index;
+            groups++;
+        }
+
+        int groups() {
+            return groups;
+        }
+
+        int count(int g) {
+            return count[g];
+        }
+
+        int min(int g) {
+            return min[g];
+        }
+
+        int max(int g) {
+            return max[g];
+        }
+
+        // the 64-bit finalizer of MurmurHash3, folded to an int
+        private static int hash(long key) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            key *= 0xc4ceb9fe1a85ec53L;
+            key ^= key >>> 33;
+            return (int) key;
+        }
+    }
+
+    // a long that orders like the double as a signed integer; -0.0 is mapped to +0.0
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value + 0.0);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    // 3-way quicksort of keys[lo..hi], moving index along; recurses on the smaller
+    // part so the stack depth is O(log n)
+    private static void sort(long[] keys, int[] index, int lo, int hi) {
+        while (hi - lo >= INSERTION_SORT_CUTOFF) {
+            // median of three as pivot, moved to lo
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < keys[lo]) swap(keys, index, mid, lo);
+            if (keys[hi] < keys[lo]) swap(keys, index, hi, lo);
+            if (keys[hi] < keys[mid]) swap(keys, index, hi, mid);
+            swap(keys, index, lo, mid);
+
+            long v = keys[lo];
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                if (keys[i] < v) swap(keys, index, lt++, i++);
+                else if (keys[i] > v) swap(keys, index, i, gt--);
+                else i++;
+            }
+            if (lt - lo < hi - gt) {
+                sort(keys, index, lo, lt - 1);
+                lo = gt + 1;
+            }
+            else {
+                sort(keys, index, gt + 1, hi);
+                hi = lt - 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && keys[j] < keys[j - 1]; j--) {
+                swap(keys, index, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, int[] index, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int swap = index[i];
+        index[i] = index[j];
+        index[j] = swap;
     }
 
     // The number of line segments
@@ -71,6 +400,8 @@ public class FastCollinearPoints {
         return segmentsList.toArray(new LineSegment[0]);
     }
 
+    // java FastCollinearPoints input.txt [comparator | sort | exact | hash] [workers]
+    //                          [minPoints]
     public static void main(String[] args) {
 
         // read the n points from a file
@@ -92,8 +423,14 @@ public class FastCollinearPoints {
         }
         StdDraw.show();
 
-        // print and draw the line segments
-        FastCollinearPoints collinear = new FastCollinearPoints(points);
+        // print and draw the line segments, optionally with another grouping, workers
+        // and line size
+        Grouping grouping = args.length >= 2 ? Grouping.valueOf(args[1].toUpperCase())
+                                             : Grouping.COMPARATOR;
+        int workers = args.length >= 3 ? Integer.parseInt(args[2]) : 1;
+        int minPoints = args.length >= 4 ? Integer.parseInt(args[3]) : DEFAULT_MIN_POINTS;
+        FastCollinearPoints collinear = new FastCollinearPoints(points, grouping, workers,
+                                                                minPoints);
         for (LineSegment segment : collinear.segments()) {
             StdOut.println(segment);
             segment.draw();
@@ -10,6 +10,7 @@
 
 import edu.princeton.cs.algs4.StdDraw;
 
+import java.util.Arrays;
 import java.util.Comparator;
 
 public class Point implements Comparable<Point> {
@@ -120,6 +121,86 @@ public class Point implements Comparable<Point> {
         }
     }
 
+    /**
+     * Returns an exact key for the slope between this point and the specified
+     * point: the difference (dy, dx) reduced to lowest terms, packed as the low
+     * 32 bits of dy in the high and of dx in the low half of a long. Of the two
+     * opposite reduced differences along a line, the one with dx &gt; 0 (or
+     * dy &gt; 0 if the line is vertical) is used if it leads from this point to
+     * a point with int coordinates, and the other one otherwise, which always
+     * does. Each component then lies in a range of 2^32 values that depends
+     * only on this point, so keeping its low 32 bits loses nothing: two points
+     * make the same slope with this point if and only if their keys are
+     * equal. The key of this point itself is 0, which no other point has.
+     * Keys are not ordered by slope, and keys from different points are not
+     * comparable.
+     *
+     * @param that the other point
+     * @return the slope key between this point and the specified point
+     */
+    public long slopeKey(Point that) {
+        long dy = (long) that.y - this.y;
+        long dx = (long) that.x - this.x;
+        if (dx == 0 && dy == 0) return 0;
+        long gcd = gcd(Math.abs(dy), Math.abs(dx));
+        dy /= gcd;
+        dx /= gcd;
+        if ((dx < 0 || (dx == 0 && dy < 0)) && isInt(this.x - dx) && isInt(this.y - dy)) {
+            dx = -dx;
+            dy = -dy;
+        }
+        return (dy << 32) | (dx & 0xffffffffL);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    private static boolean isInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Compares two points by the slope they make with this point, exactly:
+     * the same order as slopeOrder(), but computed from the coordinate
+     * differences by cross-multiplication, without floating-point division.
+     *
+     * @return the Comparator that defines this ordering on points
+     */
+    public Comparator<Point> exactSlopeOrder() {
+        return new ExactSlopeComparator();
+    }
+
+    private class ExactSlopeComparator implements Comparator<Point> {
+        @Override
+        public int compare(Point p1, Point p2) {
+            return compareSlopes((long) p1.y - y, (long) p1.x - x, (long) p2.y - y,
+                                 (long) p2.x - x);
+        }
+    }
+
+    // compares dy1 / dx1 with dy2 / dx2 in the order of slopeTo(): (0, 0) first,
+    // then finite slopes, then vertical ones. With dx made positive, the slopes
+    // are ordered by sign and then, if the signs agree, by |dy1| dx2 against
+    // |dy2| dx1; both products are below 2^64, so they are compared unsigned
+    private static int compareSlopes(long dy1, long dx1, long dy2, long dx2) {
+        int kind1 = dx1 != 0 ? 1 : dy1 == 0 ? 0 : 2;
+        int kind2 = dx2 != 0 ? 1 : dy2 == 0 ? 0 : 2;
+        if (kind1 != 1 || kind2 != 1) return Integer.compare(kind1, kind2);
+        if (dx1 < 0) dy1 = -dy1;
+        if (dx2 < 0) dy2 = -dy2;
+        int sign = Long.signum(dy1);
+        if (sign != Long.signum(dy2)) return Integer.compare(sign, Long.signum(dy2));
+        int cmp = Long.compareUnsigned(Math.abs(dy1) * Math.abs(dx2),
+                                       Math.abs(dy2) * Math.abs(dx1));
+        return sign < 0 ? -cmp : cmp;
+    }
+
     /**
      * Returns a string representation of this point.
      * This method is provide for debugging;
@@ -137,5 +218,37 @@ public class Point implements Comparable<Point> {
      */
     public static void main(String[] args) {
         /* YOUR CODE HERE */
+        Point origin = new Point(0, 0);
+        Point[] points = {
+                new Point(3, 6), new Point(-1, -2), new Point(2, 0), new Point(-5, 0),
+                new Point(0, 7), new Point(0, -7), new Point(1, -1), origin,
+                new Point(Integer.MAX_VALUE, Integer.MAX_VALUE - 1),
+                new Point(Integer.MAX_VALUE - 1, Integer.MAX_VALUE - 2)
+        };
+        for (Point p : points) {
+            System.out.println(p + ": slope " + origin.slopeTo(p)
+                                       + ", key " + Long.toHexString(origin.slopeKey(p)));
+        }
+
+        // the last two slopes are equal as doubles but not exactly
+        Point[] byDouble = points.clone();
+        Point[] exact = points.clone();
+        Arrays.sort(byDouble, origin.slopeOrder());
+        Arrays.sort(exact, origin.exactSlopeOrder());
+        System.out.println("slopeOrder:      " + Arrays.toString(byDouble));
+        System.out.println("exactSlopeOrder: " + Arrays.toString(exact));
+
+        // from a corner of the int range, reduced differences can need 33 bits
+        Point corner = new Point(Integer.MIN_VALUE, 0);
+        Point[] far = {
+                new Point(Integer.MAX_VALUE, 1), new Point(Integer.MAX_VALUE, -1),
+                new Point(Integer.MAX_VALUE, Integer.MAX_VALUE),
+                new Point(Integer.MAX_VALUE, Integer.MIN_VALUE)
+        };
+        for (Point p : far) {
+            System.out.println(p + ": key " + Long.toHexString(corner.slopeKey(p)));
+        }
+        Arrays.sort(far, corner.exactSlopeOrder());
+        System.out.println("exactSlopeOrder: " + Arrays.toString(far));
     }
 }
@@ -0,0 +1,283 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Same API as Percolation, backed by a single union-find over primitive
+ *  arrays instead of two WeightedQuickUnionUF instances. Instead of virtual
+ *  top and bottom sites, each root carries "connected to top" and "connected
+ *  to bottom" flags, so there is no backwash: a site is full exactly when its
+ *  root is connected to the top. Uses 5 bytes per site versus about 17 for
+ *  Percolation.
+ *
+ *  The arrays can be laid out in row-major order (as in Percolation), in
+ *  32-by-32 tiles, or in Morton (Z) order, so that the up and down
+ *  neighbors of a site usually share its cache lines and pages. The tiled
+ *  layout pads n up to a multiple of 32 and the Morton layout up to a power
+ *  of two.
+ *
+ *  save() writes a snapshot of the whole state (a header, the status byte of
+ *  every site and the parent of every open site) from which the grid can be
+ *  restored with CompactPercolation(Path).
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class CompactPercolation {
+    private static final byte OPEN = FlaggedUnionFind.OPEN;
+    private static final byte TOP = FlaggedUnionFind.TOP;
+    private static final byte BOTTOM = FlaggedUnionFind.BOTTOM;
+    private static final int TILE_BITS = 5;
+    private static final int TILE_MASK = (1 << TILE_BITS) - 1;
+    private static final int SNAPSHOT_MAGIC = 0x50435031; // "PCP1"
+
+    // order of the sites in the parent and status arrays
+    public enum Layout {
+        ROW_MAJOR,
+        TILED,
+        MORTON
+    }
+
+    private final int n;
+    private final Layout layout;
+    private final int tilesPerRow;
+    private final int[] parent;
+    // open, top and bottom bits and the rank of a root, as in FlaggedUnionFind
+    private final byte[] status;
+    private int openSiteCount;
+    private boolean percolates;
+
+    // union-find over the parent and status arrays
+    private final FlaggedUnionFind uf = new FlaggedUnionFind() {
+        @Override
+        long parent(long p) {
+            return parent[(int) p];
+        }
+
+        @Override
+        void setParent(long p, long q) {
+            parent[(int) p] = (int) q;
+        }
+
+        @Override
+        byte status(long p) {
+            return status[(int) p];
+        }
+
+        @Override
+        void setStatus(long p, byte value) {
+            status[(int) p] = value;
+        }
+    };
+
+    // creates n-by-n grid, with all sites initially blocked
+    public CompactPercolation(int n) {
+        this(n, Layout.ROW_MAJOR);
+    }
+
+    // creates n-by-n grid stored in the given layout, with all sites initially blocked
+    public CompactPercolation(int n, Layout layout) {
+        if (n <= 0) throw new IllegalArgumentException("N must be positive.");
+        if (layout == null) throw new IllegalArgumentException("Layout cannot be null.");
+        long side = n;
+        if (layout == Layout.TILED) side = (n + TILE_MASK) & ~TILE_MASK;
+        if (layout == Layout.MORTON) side = Long.highestOneBit(2L * n - 1);
+        if (side * side > Integer.MAX_VALUE) throw new IllegalArgumentException("N is too large.");
+        this.n = n;
+        this.layout = layout;
+        this.tilesPerRow = (int) (side >>> TILE_BITS);
+        this.parent = new int[(int) (side * side)];
+        this.status = new byte[(int) (side * side)];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        this.openSiteCount = 0;
+        this.percolates = false;
+    }
+
+    // restores a grid from a snapshot written by save()
+    public CompactPercolation(Path snapshot) {
+        if (snapshot == null) throw new IllegalArgumentException("Snapshot cannot be null.");
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC)
+                throw new IllegalArgumentException(snapshot + " is not a percolation snapshot.");
+            int size = in.readInt();
+            int ordinal = in.readInt();
+            if (ordinal < 0 || ordinal >= Layout.values().length)
+                throw new IllegalArgumentException("Unknown layout " + ordinal + ".");
+            CompactPercolation empty = new CompactPercolation(size, Layout.values()[ordinal]);
+            this.n = empty.n;
+            this.layout = empty.layout;
+            this.tilesPerRow = empty.tilesPerRow;
+            this.parent = empty.parent;
+            this.status = empty.status;
+            this.openSiteCount = in.readInt();
+            this.percolates = in.readBoolean();
+            in.readFully(status);
+            for (int i = 0; i < status.length; i++) {
+                if ((status[i] & OPEN) == 0) continue;
+                parent[i] = in.readInt();
+                if (parent[i] < 0 || parent[i] >= parent.length)
+                    throw new IllegalArgumentException("Parent out of range in " + snapshot);
+            }
+            if (in.read() != -1)
+                throw new IllegalArgumentException(snapshot + " has trailing data.");
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read snapshot " + snapshot, e);
+        }
+    }
+
+    // writes a snapshot of the grid to a temporary file, then moves it over file
+    public void save(Path file) {
+        if (file == null) throw new IllegalArgumentException("File cannot be null.");
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(n);
+                out.writeInt(layout.ordinal());
+                out.writeInt(openSiteCount);
+                out.writeBoolean(percolates);
+                out.write(status);
+                // blocked sites are always their own parent
+                for (int i = 0; i < status.length; i++) {
+                    if ((status[i] & OPEN) != 0) out.writeInt(parent[i]);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + file, e);
+        }
+    }
+
+    // convert 2D coordinate to 1D
+    private int xyTo1D(int row, int col) {
+        if (row < 1 || row > n || col < 1 || col > n) {
+            throw new IllegalArgumentException("Row and col must be between 1 and n.");
+        }
+        return index(row - 1, col - 1);
+    }
+
+    // array index of the 0-based site (r, c) in this grid's layout
+    private int index(int r, int c) {
+        switch (layout) {
+            case TILED:
+                int tile = (r >>> TILE_BITS) * tilesPerRow + (c >>> TILE_BITS);
+                return tile << (2 * TILE_BITS) | (r & TILE_MASK) << TILE_BITS | (c & TILE_MASK);
+            case MORTON:
+                return spread(r) << 1 | spread(c);
+            default:
+                return r * n + c;
+        }
+    }
+
+    // spread the low 16 bits of v to the even bit positions
+    private static int spread(int v) {
+        v &= 0xffff;
+        v = (v | (v << 8)) & 0x00ff00ff;
+        v = (v | (v << 4)) & 0x0f0f0f0f;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        int index = xyTo1D(row, col);
+        if ((status[index] & OPEN) != 0) return;
+        byte flags = OPEN;
+        if (row == 1) flags |= TOP;
+        if (row == n) flags |= BOTTOM;
+        status[index] = flags;
+        openSiteCount++;
+        if (flags == (OPEN | TOP | BOTTOM)) percolates = true;
+        if (layout == Layout.ROW_MAJOR) {
+            if (row > 1) connectIfOpen(index, index - n);
+            if (row < n) connectIfOpen(index, index + n);
+            if (col > 1) connectIfOpen(index, index - 1);
+            if (col < n) connectIfOpen(index, index + 1);
+            return;
+        }
+        int r = row - 1;
+        int c = col - 1;
+        if (row > 1) connectIfOpen(index, index(r - 1, c));
+        if (row < n) connectIfOpen(index, index(r + 1, c));
+        if (col > 1) connectIfOpen(index, index(r, c - 1));
+        if (col < n) connectIfOpen(index, index(r, c + 1));
+    }
+
+    // connect site p and site q if site q is open
+    private void connectIfOpen(int p, int q) {
+        if ((status[q] & OPEN) != 0 && uf.union(p, q)) percolates = true;
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        return (status[xyTo1D(row, col)] & OPEN) != 0;
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        return uf.isFull(xyTo1D(row, col));
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return openSiteCount;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // test client: open random sites in both implementations and compare, halfway
+    // through replacing the grid with a copy restored from a snapshot
+    public static void main(String[] args) throws IOException {
+        int n = args.length >= 1 ? Integer.parseInt(args[0]) : 20;
+        Layout layout = args.length >= 2 ? Layout.valueOf(args[1]) : Layout.ROW_MAJOR;
+        Percolation expected = new Percolation(n);
+        CompactPercolation actual = new CompactPercolation(n, layout);
+        for (int k = 0; k < n * n; k++) {
+            if (k == n * n / 2) {
+                Path snapshot = Files.createTempFile("percolation", ".snapshot");
+                actual.save(snapshot);
+                actual = new CompactPercolation(snapshot);
+                Files.delete(snapshot);
+            }
+            int row = StdRandom.uniformInt(1, n + 1);
+            int col = StdRandom.uniformInt(1, n + 1);
+            expected.open(row, col);
+            actual.open(row, col);
+            if (expected.percolates() != actual.percolates()
+                    || expected.numberOfOpenSites() != actual.numberOfOpenSites()) {
+                throw new IllegalStateException("Mismatch after opening " + row + " " + col);
+            }
+        }
+        for (int row = 1; row <= n; row++) {
+            for (int col = 1; col <= n; col++) {
+                if (expected.isFull(row, col) != actual.isFull(row, col)
+                        || expected.isOpen(row, col) != actual.isOpen(row, col)) {
+                    throw new IllegalStateException("Mismatch at " + row + " " + col);
+                }
+            }
+        }
+        System.out.println("CompactPercolation agrees with Percolation on a " + n + "-by-" + n
+                                   + " " + layout + " grid.");
+    }
+}
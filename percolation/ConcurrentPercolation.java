@@ -0,0 +1,193 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Thread-safe version of Percolation: any number of threads may open
+ *  sites and query the grid at the same time. Like Percolation it keeps
+ *  two union-find structures, one with a virtual top and bottom site (for
+ *  percolates) and one with only a virtual top site (for isFull, without
+ *  backwash). Both are lock-free: roots are linked with compare-and-set,
+ *  always the smaller index under the larger, and find halves paths with
+ *  compare-and-set. Parents therefore only ever point to larger indices,
+ *  so the virtual sites, which have the largest indices, are always roots.
+ *  isFull is a single find that ends at the top site or not, and
+ *  percolates is a volatile read of a flag set by the open that joins top
+ *  and bottom; both finish in a bounded number of steps (wait-free).
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentPercolation {
+    private final int n;
+    private final AtomicIntegerArray openSites;
+    private final AtomicIntegerArray uf;
+    private final AtomicIntegerArray ufForFull;
+    private final AtomicInteger openSiteCount;
+    private final int topVirtualSite;
+    private final int bottomVirtualSite;
+    private volatile boolean percolates;
+
+    // creates n-by-n grid, with all sites initially blocked
+    public ConcurrentPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException("N must be positive.");
+        if ((long) n * n + 2 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("N is too large.");
+        this.n = n;
+        this.openSites = new AtomicIntegerArray(n * n);
+        this.uf = new AtomicIntegerArray(n * n + 2);
+        this.ufForFull = new AtomicIntegerArray(n * n + 1);
+        for (int i = 0; i < n * n + 2; i++) uf.set(i, i);
+        for (int i = 0; i < n * n + 1; i++) ufForFull.set(i, i);
+        this.openSiteCount = new AtomicInteger();
+        this.topVirtualSite = n * n;
+        this.bottomVirtualSite = n * n + 1;
+    }
+
+    // convert 2D coordinate to 1D
+    private int xyTo1D(int row, int col) {
+        if (row < 1 || row > n || col < 1 || col > n) {
+            throw new IllegalArgumentException("Row and col must be between 1 and n.");
+        }
+        return (row - 1) * n + (col - 1);
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        int index = xyTo1D(row, col);
+        if (!openSites.compareAndSet(index, 0, 1)) return;
+        openSiteCount.incrementAndGet();
+        // the site is marked open before its neighbors are checked, so of two
+        // neighbors opened at the same time at least one sees the other
+        if (row == 1) {
+            union(uf, index, topVirtualSite);
+            union(ufForFull, index, topVirtualSite);
+        }
+        if (row == n) union(uf, index, bottomVirtualSite);
+        if (row > 1) connectIfOpen(index, index - n);
+        if (row < n) connectIfOpen(index, index + n);
+        if (col > 1) connectIfOpen(index, index - 1);
+        if (col < n) connectIfOpen(index, index + 1);
+        if (!percolates && find(uf, topVirtualSite) == bottomVirtualSite) percolates = true;
+    }
+
+    // connect site p and site q if site q is open
+    private void connectIfOpen(int p, int q) {
+        if (openSites.get(q) != 0) {
+            union(uf, p, q);
+            union(ufForFull, p, q);
+        }
+    }
+
+    // root of p, halving the path on the way up; every step moves to a larger
+    // index, so this takes at most as many steps as there are sites
+    private static int find(AtomicIntegerArray parent, int p) {
+        while (true) {
+            int next = parent.get(p);
+            if (next == p) return p;
+            int grandparent = parent.get(next);
+            if (grandparent != next) parent.compareAndSet(p, next, grandparent);
+            p = grandparent;
+        }
+    }
+
+    // link the root with the smaller index under the one with the larger index,
+    // retrying if another thread links either root first
+    private static void union(AtomicIntegerArray parent, int p, int q) {
+        while (true) {
+            int rootP = find(parent, p);
+            int rootQ = find(parent, q);
+            if (rootP == rootQ) return;
+            if (rootP > rootQ) {
+                int swap = rootP;
+                rootP = rootQ;
+                rootQ = swap;
+            }
+            if (parent.compareAndSet(rootP, rootP, rootQ)) return;
+        }
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        return openSites.get(xyTo1D(row, col)) != 0;
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        return find(ufForFull, xyTo1D(row, col)) == topVirtualSite;
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return openSiteCount.get();
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // stress test: java ConcurrentPercolation n threads rounds
+    // several threads open overlapping random site sequences of one grid; the
+    // result must match Percolation opening the same sites on one thread
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length >= 1 ? Integer.parseInt(args[0]) : 50;
+        int threads = args.length >= 2 ? Integer.parseInt(args[1]) : 8;
+        int rounds = args.length >= 3 ? Integer.parseInt(args[2]) : 20;
+        for (int round = 0; round < rounds; round++) {
+            int opens = StdRandom.uniformInt(n * n) + 1;
+            int[][] rows = new int[threads][opens / threads + 1];
+            int[][] cols = new int[threads][opens / threads + 1];
+            Percolation expected = new Percolation(n);
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < rows[t].length; i++) {
+                    rows[t][i] = StdRandom.uniformInt(1, n + 1);
+                    cols[t][i] = StdRandom.uniformInt(1, n + 1);
+                    expected.open(rows[t][i], cols[t][i]);
+                }
+            }
+
+            ConcurrentPercolation actual = new ConcurrentPercolation(n);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int id = t;
+                workers[t] = new Thread(() -> {
+                    boolean percolated = false;
+                    for (int i = 0; i < rows[id].length; i++) {
+                        actual.open(rows[id][i], cols[id][i]);
+                        // an opened site stays open and percolation is never undone
+                        if (!actual.isOpen(rows[id][i], cols[id][i]))
+                            throw new IllegalStateException("Opened site is not open");
+                        if (percolated && !actual.percolates())
+                            throw new IllegalStateException("percolates is not monotone");
+                        percolated = actual.percolates();
+                    }
+                });
+                workers[t].setUncaughtExceptionHandler((thread, e) -> failure.set(e));
+                workers[t].start();
+            }
+            for (Thread worker : workers) worker.join();
+            if (failure.get() != null) throw new IllegalStateException(failure.get());
+
+            if (expected.percolates() != actual.percolates()
+                    || expected.numberOfOpenSites() != actual.numberOfOpenSites()) {
+                throw new IllegalStateException("Mismatch in round " + round);
+            }
+            for (int row = 1; row <= n; row++) {
+                for (int col = 1; col <= n; col++) {
+                    if (expected.isFull(row, col) != actual.isFull(row, col)
+                            || expected.isOpen(row, col) != actual.isOpen(row, col)) {
+                        throw new IllegalStateException("Mismatch at " + row + " " + col);
+                    }
+                }
+            }
+        }
+        System.out.println("ConcurrentPercolation agrees with Percolation in " + rounds
+                                   + " rounds of " + threads + " threads.");
+    }
+}
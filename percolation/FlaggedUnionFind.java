@@ -0,0 +1,73 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Union-find with union by rank and path halving whose roots carry
+ *  "connected to top" and "connected to bottom" flags, shared by
+ *  CompactPercolation, MappedPercolation and LatticePercolation. Each of
+ *  them subclasses it with accessors for its own storage of a parent and a
+ *  status byte per site, addressed by a long index; a root is its own
+ *  parent. The status byte holds the open, top and bottom bits, and the
+ *  rank of a root in bits 3-7.
+ **************************************************************************** */
+
+public abstract class FlaggedUnionFind {
+    static final byte OPEN = 1;
+    static final byte TOP = 2;
+    static final byte BOTTOM = 4;
+    private static final int RANK_SHIFT = 3;
+
+    abstract long parent(long p);
+
+    abstract void setParent(long p, long parent);
+
+    abstract byte status(long p);
+
+    abstract void setStatus(long p, byte status);
+
+    // root of site p, halving the path on the way up
+    long find(long p) {
+        long next = parent(p);
+        while (next != p) {
+            long grandparent = parent(next);
+            setParent(p, grandparent);
+            p = grandparent;
+            next = parent(p);
+        }
+        return p;
+    }
+
+    // union by rank, merging the top and bottom flags into the new root; returns
+    // whether the merged component is connected to both the top and the bottom
+    boolean union(long p, long q) {
+        long rootP = find(p);
+        long rootQ = find(q);
+        if (rootP == rootQ) return false;
+        byte statusP = status(rootP);
+        byte statusQ = status(rootQ);
+        int rankP = (statusP & 0xff) >>> RANK_SHIFT;
+        int rankQ = (statusQ & 0xff) >>> RANK_SHIFT;
+        int flags = (statusP | statusQ) & (OPEN | TOP | BOTTOM);
+        long root = rootP;
+        long child = rootQ;
+        if (rankP < rankQ) {
+            root = rootQ;
+            child = rootP;
+        }
+        int rank = Math.max(rankP, rankQ) + (rankP == rankQ ? 1 : 0);
+        setParent(child, root);
+        setStatus(root, (byte) (flags | (rank << RANK_SHIFT)));
+        return (flags & (TOP | BOTTOM)) == (TOP | BOTTOM);
+    }
+
+    // is site p open?
+    boolean isOpen(long p) {
+        return (status(p) & OPEN) != 0;
+    }
+
+    // is site p open and connected to the top?
+    boolean isFull(long p) {
+        return isOpen(p) && (status(find(p)) & TOP) != 0;
+    }
+}
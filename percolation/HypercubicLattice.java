@@ -0,0 +1,135 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  A d-dimensional n-by-n-by-...-by-n lattice with a pluggable neighborhood
+ *  given by coordinate offsets. Sites are numbered in row-major order with
+ *  axis 0 slowest; axis 0 is the vertical axis, so top sites have
+ *  coordinate 0 and bottom sites coordinate n - 1 along it. With d = 2 and
+ *  nearest neighbors, site (row - 1) * n + (col - 1) matches Percolation.
+ **************************************************************************** */
+
+public class HypercubicLattice implements Lattice {
+    private final int n;
+    private final int sites;
+    private final int[] stride;
+    // for each direction: the change in site index, and the axes it moves along
+    private final int[] delta;
+    private final int[][] axes;
+    private final int[][] steps;
+    private final long bonds;
+
+    // lattice with the given side length, dimension and neighbor offsets; offsets
+    // must come in opposite pairs, offsets[2i + 1] = -offsets[2i]
+    public HypercubicLattice(int n, int dimensions, int[][] offsets) {
+        if (n <= 0 || dimensions <= 0)
+            throw new IllegalArgumentException("N and dimensions must be positive.");
+        if (offsets == null || offsets.length == 0 || offsets.length % 2 != 0)
+            throw new IllegalArgumentException("Offsets must come in opposite pairs.");
+        long size = 1;
+        this.stride = new int[dimensions];
+        for (int a = dimensions - 1; a >= 0; a--) {
+            stride[a] = (int) size;
+            size *= n;
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Lattice is too large.");
+        }
+        this.n = n;
+        this.sites = (int) size;
+        this.delta = new int[offsets.length];
+        this.axes = new int[offsets.length][];
+        this.steps = new int[offsets.length][];
+        long bondCount = 0;
+        for (int d = 0; d < offsets.length; d++) {
+            int[] offset = offsets[d];
+            if (offset == null || offset.length != dimensions)
+                throw new IllegalArgumentException("Each offset needs one entry per dimension.");
+            int moving = 0;
+            for (int a = 0; a < dimensions; a++) {
+                if (offset[a] != 0) moving++;
+                if (d % 2 == 1 && offset[a] != -offsets[d - 1][a])
+                    throw new IllegalArgumentException("Offsets must come in opposite pairs.");
+            }
+            if (moving == 0) throw new IllegalArgumentException("Offsets must be non-zero.");
+            axes[d] = new int[moving];
+            steps[d] = new int[moving];
+            long pairs = 1;
+            for (int a = 0, i = 0; a < dimensions; a++) {
+                pairs *= Math.max(0, n - Math.abs(offset[a]));
+                if (offset[a] == 0) continue;
+                axes[d][i] = a;
+                steps[d][i] = offset[a];
+                delta[d] += offset[a] * stride[a];
+                i++;
+            }
+            if (d % 2 == 0) bondCount += pairs;
+        }
+        this.bonds = bondCount;
+    }
+
+    // lattice where each site is connected to the 2 * dimensions sites at distance 1
+    public static HypercubicLattice nearestNeighbors(int n, int dimensions) {
+        int[][] offsets = new int[2 * dimensions][dimensions];
+        for (int a = 0; a < dimensions; a++) {
+            offsets[2 * a][a] = 1;
+            offsets[2 * a + 1][a] = -1;
+        }
+        return new HypercubicLattice(n, dimensions, offsets);
+    }
+
+    // lattice where each site is connected to the 3^dimensions - 1 sites of the
+    // surrounding cube
+    public static HypercubicLattice moore(int n, int dimensions) {
+        int cube = 1;
+        for (int a = 0; a < dimensions; a++) cube *= 3;
+        int[][] offsets = new int[cube - 1][];
+        int count = 0;
+        // the cube's cells other than the center, in pairs k and cube - 1 - k
+        for (int k = 0; k < cube / 2; k++) {
+            int[] offset = new int[dimensions];
+            for (int a = 0, rest = k; a < dimensions; a++, rest /= 3) offset[a] = rest % 3 - 1;
+            int[] opposite = new int[dimensions];
+            for (int a = 0; a < dimensions; a++) opposite[a] = -offset[a];
+            offsets[count++] = offset;
+            offsets[count++] = opposite;
+        }
+        return new HypercubicLattice(n, dimensions, offsets);
+    }
+
+    @Override
+    public int sites() {
+        return sites;
+    }
+
+    @Override
+    public int directions() {
+        return delta.length;
+    }
+
+    @Override
+    public int neighbor(int site, int direction) {
+        int[] axis = axes[direction];
+        int[] step = steps[direction];
+        for (int i = 0; i < axis.length; i++) {
+            int coordinate = (site / stride[axis[i]]) % n + step[i];
+            if (coordinate < 0 || coordinate >= n) return -1;
+        }
+        return site + delta[direction];
+    }
+
+    @Override
+    public long bonds() {
+        return bonds;
+    }
+
+    @Override
+    public boolean isTop(int site) {
+        return site < stride[0];
+    }
+
+    @Override
+    public boolean isBottom(int site) {
+        return site >= sites - stride[0];
+    }
+}
@@ -0,0 +1,131 @@
+/******************************************************************************
+ *  Compilation:  javac IncrementalPercolationVisualizer.java
+ *  Execution:    java IncrementalPercolationVisualizer input.txt [fps]
+ *  Dependencies: Percolation.java Picture.java StdDraw.java In.java
+ *
+ *  This program takes the name of a file as a command-line argument,
+ *  in the same format as PercolationVisualizer, and replays it into a
+ *  backing image instead of redrawing the whole grid after every site.
+ *
+ *    - A new Picture is all black, which is how blocked sites are shown.
+ *    - An opened site is painted white, or light blue if it is full, in
+ *      the same StdDraw colors as PercolationVisualizer.
+ *    - When an opened site is full, the open sites that just became full
+ *      are found by a flood fill from it and painted light blue; each site
+ *      is filled at most once, so the whole replay is linear in n*n.
+ *    - The image is shown at most fps times per second (default 30),
+ *      and once more at the end.
+ *
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.Picture;
+import edu.princeton.cs.algs4.StdDraw;
+
+import java.awt.Color;
+
+public class IncrementalPercolationVisualizer {
+
+    // frames per second, unless given on the command line
+    private static final int DEFAULT_FPS = 30;
+
+    // approximate image size in pixels
+    private static final int SIZE = 512;
+
+    private final Percolation perc;
+    private final int n;
+    private final int cell;
+    private final Picture picture;
+    private final boolean[] painted;  // is the site painted as full?
+    private final int[] stack;        // flood fill work list
+    private final long frameNanos;
+    private long lastFrame;
+
+    // blank n-by-n system, shown at most fps times per second
+    public IncrementalPercolationVisualizer(int n, int fps) {
+        if (n <= 0 || fps <= 0) throw new IllegalArgumentException("N and fps must be positive.");
+        this.perc = new Percolation(n);
+        this.n = n;
+        this.cell = Math.max(1, SIZE / n);
+        this.picture = new Picture(n * cell, n * cell);
+        this.painted = new boolean[n * n];
+        this.stack = new int[n * n];
+        this.frameNanos = 1_000_000_000L / fps;
+        this.lastFrame = System.nanoTime();
+        show();
+    }
+
+    // opens site (row, col) and repaints the sites whose state changed
+    public void open(int row, int col) {
+        if (perc.isOpen(row, col)) return;
+        perc.open(row, col);
+        if (perc.isFull(row, col)) fill(row, col);
+        else paint(row - 1, col - 1, StdDraw.WHITE);
+        long now = System.nanoTime();
+        if (now - lastFrame >= frameNanos) {
+            lastFrame = now;
+            show();
+        }
+    }
+
+    // paint light blue every open site connected to (row, col) that is not painted yet
+    private void fill(int row, int col) {
+        int size = 0;
+        int start = (row - 1) * n + (col - 1);
+        painted[start] = true;
+        stack[size++] = start;
+        while (size > 0) {
+            int site = stack[--size];
+            int r = site / n;
+            int c = site % n;
+            paint(r, c, StdDraw.BOOK_LIGHT_BLUE);
+            if (r > 0) size = push(r - 1, c, size);
+            if (r < n - 1) size = push(r + 1, c, size);
+            if (c > 0) size = push(r, c - 1, size);
+            if (c < n - 1) size = push(r, c + 1, size);
+        }
+    }
+
+    // push the 0-based site (r, c) onto the stack if it is open and not yet painted full
+    private int push(int r, int c, int size) {
+        int site = r * n + c;
+        if (!painted[site] && perc.isOpen(r + 1, c + 1)) {
+            painted[site] = true;
+            stack[size++] = site;
+        }
+        return size;
+    }
+
+    // paint the 0-based site (r, c), leaving a one-pixel border of the black background
+    // for cells over 2 pixels
+    private void paint(int r, int c, Color color) {
+        int border = cell > 2 ? 1 : 0;
+        for (int y = r * cell + border; y < (r + 1) * cell - border; y++) {
+            for (int x = c * cell + border; x < (c + 1) * cell - border; x++) {
+                picture.set(x, y, color);
+            }
+        }
+    }
+
+    // show the current image, with the status in the title bar
+    public void show() {
+        String status = perc.percolates() ? "percolates" : "does not percolate";
+        picture.setTitle(perc.numberOfOpenSites() + " open sites, " + status);
+        picture.show();
+    }
+
+    public static void main(String[] args) {
+        In in = new In(args[0]);      // input file
+        int n = in.readInt();         // n-by-n percolation system
+        int fps = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_FPS;
+
+        // repeatedly read in sites to open, repainting at most fps times per second
+        IncrementalPercolationVisualizer visualizer = new IncrementalPercolationVisualizer(n, fps);
+        while (!in.isEmpty()) {
+            int i = in.readInt();
+            int j = in.readInt();
+            visualizer.open(i, j);
+        }
+        visualizer.show();
+    }
+}
@@ -0,0 +1,31 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  The geometry of a percolation system: sites numbered 0 to sites() - 1,
+ *  a neighborhood given by numbered directions, and the sets of top and
+ *  bottom sites that a spanning cluster must connect.
+ **************************************************************************** */
+
+public interface Lattice {
+
+    // number of sites
+    int sites();
+
+    // number of neighbor directions per site; directions 2i and 2i + 1 are opposite,
+    // so each bond is reached once through an even direction
+    int directions();
+
+    // the neighbor of site in the given direction, or -1 if it falls outside the lattice
+    int neighbor(int site, int direction);
+
+    // number of bonds, that is, unordered pairs of neighboring sites
+    long bonds();
+
+    // is site on the top boundary?
+    boolean isTop(int site);
+
+    // is site on the bottom boundary?
+    boolean isBottom(int site);
+}
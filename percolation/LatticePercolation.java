@@ -0,0 +1,155 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Percolation on an arbitrary Lattice, using the same single union-find
+ *  with per-root top/bottom flags as CompactPercolation. Supports site
+ *  percolation (openSite connects a site to its open neighbors) and bond
+ *  percolation (openBond connects exactly the two ends of one bond); an
+ *  instance should be driven by one model only. Sites are addressed by
+ *  their flat lattice index and nothing is allocated after construction.
+ **************************************************************************** */
+
+public class LatticePercolation {
+    private static final byte OPEN = FlaggedUnionFind.OPEN;
+    private static final byte TOP = FlaggedUnionFind.TOP;
+    private static final byte BOTTOM = FlaggedUnionFind.BOTTOM;
+
+    private final Lattice lattice;
+    private final int[] parent;
+    // open, top and bottom bits and the rank of a root, as in FlaggedUnionFind
+    private final byte[] status;
+    private int openSiteCount;
+    private long openBondCount;
+    private boolean percolates;
+
+    // union-find over the parent and status arrays
+    private final FlaggedUnionFind uf = new FlaggedUnionFind() {
+        @Override
+        long parent(long p) {
+            return parent[(int) p];
+        }
+
+        @Override
+        void setParent(long p, long q) {
+            parent[(int) p] = (int) q;
+        }
+
+        @Override
+        byte status(long p) {
+            return status[(int) p];
+        }
+
+        @Override
+        void setStatus(long p, byte value) {
+            status[(int) p] = value;
+        }
+    };
+
+    // which elements of the lattice are opened at random
+    public enum Model {
+        SITE,
+        BOND
+    }
+
+    // creates a percolation system on the lattice, with all sites and bonds blocked
+    public LatticePercolation(Lattice lattice) {
+        if (lattice == null) throw new IllegalArgumentException("Lattice cannot be null.");
+        this.lattice = lattice;
+        this.parent = new int[lattice.sites()];
+        this.status = new byte[lattice.sites()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+    }
+
+    private void validate(int site) {
+        if (site < 0 || site >= parent.length)
+            throw new IllegalArgumentException("Site must be between 0 and sites - 1.");
+    }
+
+    // opens site if it is not open already and connects it to its open neighbors
+    public void openSite(int site) {
+        validate(site);
+        if (!markOpen(site)) return;
+        for (int d = lattice.directions() - 1; d >= 0; d--) {
+            int neighbor = lattice.neighbor(site, d);
+            if (neighbor >= 0 && (status[neighbor] & OPEN) != 0 && uf.union(site, neighbor))
+                percolates = true;
+        }
+    }
+
+    // opens the bond between site and its neighbor in the given direction, opening
+    // both ends if needed; returns false if there is no such neighbor
+    public boolean openBond(int site, int direction) {
+        validate(site);
+        if (direction < 0 || direction >= lattice.directions())
+            throw new IllegalArgumentException("Direction must be between 0 and directions - 1.");
+        int neighbor = lattice.neighbor(site, direction);
+        if (neighbor < 0) return false;
+        markOpen(site);
+        markOpen(neighbor);
+        openBondCount++;
+        if (uf.union(site, neighbor)) percolates = true;
+        return true;
+    }
+
+    // marks site open without connecting it; returns false if it was already open
+    private boolean markOpen(int site) {
+        if ((status[site] & OPEN) != 0) return false;
+        byte flags = OPEN;
+        if (lattice.isTop(site)) flags |= TOP;
+        if (lattice.isBottom(site)) flags |= BOTTOM;
+        status[site] = flags;
+        openSiteCount++;
+        if (flags == (OPEN | TOP | BOTTOM)) percolates = true;
+        return true;
+    }
+
+    // is site open?
+    public boolean isOpen(int site) {
+        validate(site);
+        return (status[site] & OPEN) != 0;
+    }
+
+    // is site connected to the top through open sites (or open bonds)?
+    public boolean isFull(int site) {
+        validate(site);
+        return uf.isFull(site);
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return openSiteCount;
+    }
+
+    // returns the number of open bonds
+    public long numberOfOpenBonds() {
+        return openBondCount;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // test client: java LatticePercolation n dimensions trials [workers]
+    // estimates the site and bond thresholds of the nearest-neighbor lattice
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int dimensions = Integer.parseInt(args[1]);
+        int trials = Integer.parseInt(args[2]);
+        int workers = args.length >= 4 ? Integer.parseInt(args[3]) : 1;
+        Lattice lattice = HypercubicLattice.nearestNeighbors(n, dimensions);
+        for (Model model : Model.values()) {
+            PercolationStats stats = new PercolationStats(lattice, model, trials, workers,
+                                                          System.nanoTime());
+            System.out.println(model + " mean = " + stats.mean());
+            System.out.println(model + " stddev = " + stats.stddev());
+            System.out.println(
+                    model + " 95% confidence interval = [" + stats.confidenceLo() + ", "
+                            + stats.confidenceHi() + "]");
+        }
+    }
+}
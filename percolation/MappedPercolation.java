@@ -0,0 +1,221 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Same API as CompactPercolation, but the union-find parent array and the
+ *  per-site status bytes live in memory-mapped files instead of the heap,
+ *  addressed with long indices. Grids up to 65535-by-65535 (about 4.3
+ *  billion sites, 5 bytes each) can be simulated without a large heap; the
+ *  operating system pages the files in and out as needed.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class MappedPercolation implements Closeable {
+    private static final int MAX_N = 65535;
+    private static final byte OPEN = FlaggedUnionFind.OPEN;
+    private static final byte TOP = FlaggedUnionFind.TOP;
+    private static final byte BOTTOM = FlaggedUnionFind.BOTTOM;
+
+    private final int n;
+    private final Path parentFile;
+    private final Path statusFile;
+    // parent of each site plus one, as an unsigned int; 0 marks a root, so a
+    // freshly created (zero-filled) file is a forest of singletons
+    private final MappedArray parent;
+    // open, top and bottom bits and the rank of a root, as in FlaggedUnionFind
+    private final MappedArray status;
+    private long openSiteCount;
+    private boolean percolates;
+    // union-find over the mapped arrays
+    private final FlaggedUnionFind uf = new FlaggedUnionFind() {
+        @Override
+        long parent(long p) {
+            long stored = parent.getUnsignedInt(p);
+            return stored == 0 ? p : stored - 1;
+        }
+
+        @Override
+        void setParent(long p, long q) {
+            parent.putUnsignedInt(p, q == p ? 0 : q + 1);
+        }
+
+        @Override
+        byte status(long p) {
+            return status.getByte(p);
+        }
+
+        @Override
+        void setStatus(long p, byte value) {
+            status.putByte(p, value);
+        }
+    };
+
+    // a long-indexed view of a file, mapped in chunks of at most 1 GB
+    private static final class MappedArray implements Closeable {
+        private static final int CHUNK_BITS = 30;
+        private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+        private final FileChannel channel;
+        private final MappedByteBuffer[] chunks;
+
+        MappedArray(Path file, long bytes) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int count = (int) ((bytes + CHUNK_MASK) >>> CHUNK_BITS);
+            chunks = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i << CHUNK_BITS;
+                long size = Math.min(1L << CHUNK_BITS, bytes - position);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+                chunks[i].order(ByteOrder.nativeOrder());
+            }
+        }
+
+        byte getByte(long index) {
+            return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+        }
+
+        void putByte(long index, byte value) {
+            chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+        }
+
+        // ints never straddle chunks because the chunk size is a multiple of 4
+        long getUnsignedInt(long index) {
+            long offset = index << 2;
+            int value = chunks[(int) (offset >>> CHUNK_BITS)].getInt((int) (offset & CHUNK_MASK));
+            return value & 0xffffffffL;
+        }
+
+        void putUnsignedInt(long index, long value) {
+            long offset = index << 2;
+            chunks[(int) (offset >>> CHUNK_BITS)].putInt((int) (offset & CHUNK_MASK), (int) value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // creates n-by-n grid, with all sites initially blocked, backed by files in directory
+    public MappedPercolation(int n, Path directory) {
+        if (n <= 0) throw new IllegalArgumentException("N must be positive.");
+        if (n > MAX_N) throw new IllegalArgumentException("N must be at most " + MAX_N + ".");
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null.");
+        this.n = n;
+        long sites = (long) n * n;
+        try {
+            this.parentFile = Files.createTempFile(directory, "percolation-parent", ".bin");
+            this.statusFile = Files.createTempFile(directory, "percolation-status", ".bin");
+            this.parent = new MappedArray(parentFile, 4 * sites);
+            this.status = new MappedArray(statusFile, sites);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not create grid files in " + directory, e);
+        }
+        this.openSiteCount = 0;
+        this.percolates = false;
+    }
+
+    // convert 2D coordinate to 1D
+    private long xyTo1D(int row, int col) {
+        if (row < 1 || row > n || col < 1 || col > n) {
+            throw new IllegalArgumentException("Row and col must be between 1 and n.");
+        }
+        return (long) (row - 1) * n + (col - 1);
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        long index = xyTo1D(row, col);
+        if ((status.getByte(index) & OPEN) != 0) return;
+        byte flags = OPEN;
+        if (row == 1) flags |= TOP;
+        if (row == n) flags |= BOTTOM;
+        status.putByte(index, flags);
+        openSiteCount++;
+        if (flags == (OPEN | TOP | BOTTOM)) percolates = true;
+        if (row > 1) connectIfOpen(index, index - n);
+        if (row < n) connectIfOpen(index, index + n);
+        if (col > 1) connectIfOpen(index, index - 1);
+        if (col < n) connectIfOpen(index, index + 1);
+    }
+
+    // connect site p and site q if site q is open
+    private void connectIfOpen(long p, long q) {
+        if ((status.getByte(q) & OPEN) != 0 && uf.union(p, q)) percolates = true;
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        return (status.getByte(xyTo1D(row, col)) & OPEN) != 0;
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        return uf.isFull(xyTo1D(row, col));
+    }
+
+    // returns the number of open sites
+    public long numberOfOpenSites() {
+        return openSiteCount;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // releases the backing files
+    @Override
+    public void close() {
+        try {
+            parent.close();
+            status.close();
+            Files.deleteIfExists(parentFile);
+            Files.deleteIfExists(statusFile);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // test client: open random sites in a mapped and an in-heap grid and compare
+    public static void main(String[] args) {
+        int n = args.length >= 1 ? Integer.parseInt(args[0]) : 20;
+        String tmp = System.getProperty("java.io.tmpdir");
+        Path directory = Paths.get(args.length >= 2 ? args[1] : tmp);
+        CompactPercolation expected = new CompactPercolation(n);
+        try (MappedPercolation actual = new MappedPercolation(n, directory)) {
+            while (!actual.percolates()) {
+                int row = StdRandom.uniformInt(1, n + 1);
+                int col = StdRandom.uniformInt(1, n + 1);
+                expected.open(row, col);
+                actual.open(row, col);
+                if (expected.percolates() != actual.percolates()
+                        || expected.numberOfOpenSites() != actual.numberOfOpenSites()) {
+                    throw new IllegalStateException("Mismatch after opening " + row + " " + col);
+                }
+            }
+            for (int row = 1; row <= n; row++) {
+                for (int col = 1; col <= n; col++) {
+                    if (expected.isFull(row, col) != actual.isFull(row, col)) {
+                        throw new IllegalStateException("Mismatch at " + row + " " + col);
+                    }
+                }
+            }
+            System.out.println("percolates after " + actual.numberOfOpenSites() + " open sites");
+        }
+    }
+}
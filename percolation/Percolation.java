@@ -6,7 +6,18 @@
 
 import edu.princeton.cs.algs4.WeightedQuickUnionUF;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
 public class Percolation {
+    private static final int SNAPSHOT_MAGIC = 0x50524331; // "PRC1"
     private final int n;
     private final WeightedQuickUnionUF uf;
     private final WeightedQuickUnionUF ufForFull;
@@ -27,6 +38,77 @@ public class Percolation {
         this.bottomVirtualSite = n * n + 1;
     }
 
+    // the contents of a snapshot file: the grid size and the bitmap of open sites
+    private static final class Snapshot {
+        private final int n;
+        private final byte[] bitmap;
+
+        Snapshot(int n, byte[] bitmap) {
+            this.n = n;
+            this.bitmap = bitmap;
+        }
+    }
+
+    // restores a grid from a snapshot written by save(); the union-find state is
+    // rebuilt by reopening the open sites
+    public Percolation(Path snapshot) {
+        this(readSnapshot(snapshot));
+    }
+
+    private Percolation(Snapshot snapshot) {
+        this(snapshot.n);
+        int[] indices = new int[openSites.length];
+        int count = 0;
+        for (int index = 0; index < openSites.length; index++) {
+            if ((snapshot.bitmap[index >>> 3] & (1 << (index & 7))) != 0) indices[count++] = index;
+        }
+        openBatch(indices, count);
+    }
+
+    // reads the grid size and the bitmap of open sites from a snapshot file
+    private static Snapshot readSnapshot(Path file) {
+        if (file == null) throw new IllegalArgumentException("Snapshot cannot be null.");
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC)
+                throw new IllegalArgumentException(file + " is not a percolation snapshot.");
+            int n = in.readInt();
+            if (n <= 0) throw new IllegalArgumentException("N must be positive.");
+            if ((long) n * n + 2 > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("N is too large.");
+            byte[] bitmap = new byte[(int) (((long) n * n + 7) / 8)];
+            in.readFully(bitmap);
+            if (in.read() != -1) throw new IllegalArgumentException(file + " has trailing data.");
+            return new Snapshot(n, bitmap);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read snapshot " + file, e);
+        }
+    }
+
+    // writes n and a bitmap of the open sites to a temporary file, then moves it over file
+    public void save(Path file) {
+        if (file == null) throw new IllegalArgumentException("File cannot be null.");
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(n);
+                byte[] bitmap = new byte[(openSites.length + 7) / 8];
+                for (int index = 0; index < openSites.length; index++) {
+                    if (openSites[index]) bitmap[index >>> 3] |= (byte) (1 << (index & 7));
+                }
+                out.write(bitmap);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + file, e);
+        }
+    }
+
     // convert 2D coordinate to 1D
     private int xyTo1D(int row, int col) {
         if (row < 1 || row > n || col < 1 || col > n) {
@@ -37,27 +119,96 @@ public class Percolation {
 
     // opens the site (row, col) if it is not open already
     public void open(int row, int col) {
-        int index = xyTo1D(row, col);
-        if (!openSites[index]) {
-            openSites[index] = true;
-            openSiteCount++;
-            if (row == 1) {
+        openSite(xyTo1D(row, col), row - 1, col - 1);
+    }
+
+    // opens the sites (rows[i], cols[i]) that are not open already; all sites are
+    // validated before any is opened, then opened as one batch
+    public void openAll(int[] rows, int[] cols) {
+        if (rows == null || cols == null) throw new IllegalArgumentException("Argument is null.");
+        if (rows.length != cols.length) {
+            throw new IllegalArgumentException("Rows and cols must have the same length.");
+        }
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] < 1 || rows[i] > n || cols[i] < 1 || cols[i] > n) {
+                throw new IllegalArgumentException("Row and col must be between 1 and n.");
+            }
+        }
+        int[] indices = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            indices[i] = (rows[i] - 1) * n + (cols[i] - 1);
+        }
+        openBatch(indices, indices.length);
+    }
+
+    // opens the sites with the given 0-based row-major indices, (row - 1) * n + (col - 1),
+    // that are not open already; all indices are validated before any site is opened,
+    // then opened as one batch
+    public void openAll(int[] linearIndices) {
+        if (linearIndices == null) throw new IllegalArgumentException("Argument is null.");
+        for (int index : linearIndices) {
+            if (index < 0 || index >= topVirtualSite) {
+                throw new IllegalArgumentException("Index must be between 0 and n * n - 1.");
+            }
+        }
+        openBatch(linearIndices, linearIndices.length);
+    }
+
+    // opens the first length valid 1D indices as a batch: marks every new site open
+    // first, then unions each new site with its open neighbours in one pass (a
+    // neighbour opened in the same batch is already marked), then joins the new
+    // sites of the top and bottom rows to the virtual sites in a last pass
+    private void openBatch(int[] indices, int length) {
+        int[] added = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            int index = indices[i];
+            if (!openSites[index]) {
+                openSites[index] = true;
+                added[count++] = index;
+            }
+        }
+        openSiteCount += count;
+        for (int i = 0; i < count; i++) {
+            int index = added[i];
+            int row = index / n;
+            int col = index - row * n;
+            if (row > 0) connectIfOpen(index, index - n);
+            if (row < n - 1) connectIfOpen(index, index + n);
+            if (col > 0) connectIfOpen(index, index - 1);
+            if (col < n - 1) connectIfOpen(index, index + 1);
+        }
+        for (int i = 0; i < count; i++) {
+            int index = added[i];
+            if (index < n) {
                 uf.union(index, topVirtualSite);
                 ufForFull.union(index, topVirtualSite);
             }
-            if (row == n) uf.union(index, bottomVirtualSite);
-            connectIfOpen(row, col, row - 1, col);
-            connectIfOpen(row, col, row + 1, col);
-            connectIfOpen(row, col, row, col - 1);
-            connectIfOpen(row, col, row, col + 1);
+            if (index >= topVirtualSite - n) uf.union(index, bottomVirtualSite);
+        }
+    }
+
+    // opens the site at a valid 1D index with 0-based (row, col), without re-validating
+    private void openSite(int index, int row, int col) {
+        if (openSites[index]) return;
+        openSites[index] = true;
+        openSiteCount++;
+        if (row == 0) {
+            uf.union(index, topVirtualSite);
+            ufForFull.union(index, topVirtualSite);
         }
+        if (row == n - 1) uf.union(index, bottomVirtualSite);
+        if (row > 0) connectIfOpen(index, index - n);
+        if (row < n - 1) connectIfOpen(index, index + n);
+        if (col > 0) connectIfOpen(index, index - 1);
+        if (col < n - 1) connectIfOpen(index, index + 1);
     }
 
-    // connect point 1 and point 2 if point 2 is open
-    private void connectIfOpen(int row1, int col1, int row2, int col2) {
-        if (row2 >= 1 && row2 <= n && col2 >= 1 && col2 <= n && isOpen(row2, col2)) {
-            uf.union(xyTo1D(row1, col1), xyTo1D(row2, col2));
-            ufForFull.union(xyTo1D(row1, col1), xyTo1D(row2, col2));
+    // connect site p and site q if site q is open
+    private void connectIfOpen(int p, int q) {
+        if (openSites[q]) {
+            uf.union(p, q);
+            ufForFull.union(p, q);
         }
     }
 
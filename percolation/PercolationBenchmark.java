@@ -0,0 +1,196 @@
+/* *****************************************************************************
+ *  Compilation:  javac PercolationBenchmark.java
+ *  Execution:    java PercolationBenchmark sampling n trials [workers]
+ *                java PercolationBenchmark openAll n opens
+ *                java PercolationBenchmark layout n [opens]
+ *                java -Xmx2g PercolationBenchmark layoutSweep maxN
+ *  Dependencies: PercolationStats.java Percolation.java Stopwatch.java
+ *
+ *  sampling: times PercolationStats on an n-by-n grid with the original
+ *            sequential StdRandom loop as the baseline, then with each
+ *            sampling mode, using the same seed for every mode.
+ *  openAll:  times opening the same random sites of an n-by-n grid one at
+ *            a time with the original open(), which validates every
+ *            neighbour it looks at, then with Percolation.open(), and in
+ *            bulk with both forms of openAll(). open() validates each site
+ *            once and unions its neighbours right away; openAll() marks the
+ *            whole batch open first, then unions the new sites with their
+ *            open neighbours and the virtual sites in separate passes.
+ *  layout:   times CompactPercolation.open() on an n-by-n grid in each
+ *            array layout, opening the same random sites (by default
+ *            0.6 n^2 draws, close to the percolation threshold).
+ *  layoutSweep: runs layout with the default draws for n = 1024, 2048,
+ *            ... up to maxN. A grid takes 5 bytes per site, so n = 16384
+ *            needs about 1.3 GB of heap.
+ *
+ *  Each case is run once to warm up the JIT before it is timed.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+
+import java.util.SplittableRandom;
+
+public class PercolationBenchmark {
+    private static final long SEED = 20240816L;
+
+    // time trials of the original StdRandom loop and of each sampling mode of PercolationStats
+    private static void sampling(int n, int trials, int workers) {
+        new PercolationStats(n, Math.max(1, trials / 10));
+        Stopwatch baseline = new Stopwatch();
+        PercolationStats original = new PercolationStats(n, trials);
+        double seconds = baseline.elapsedTime();
+        StdOut.printf("%-10s %8.3f s %10.1f trials/s   mean = %.6f%n",
+                      "StdRandom", seconds, trials / seconds, original.mean());
+        for (PercolationStats.Sampling sampling : PercolationStats.Sampling.values()) {
+            new PercolationStats(n, Math.max(1, trials / 10), workers, SEED, sampling);
+            Stopwatch timer = new Stopwatch();
+            PercolationStats stats = new PercolationStats(n, trials, workers, SEED, sampling);
+            double elapsed = timer.elapsedTime();
+            StdOut.printf("%-10s %8.3f s %10.1f trials/s   mean = %.6f%n",
+                          sampling, elapsed, trials / elapsed, stats.mean());
+        }
+    }
+
+    // the original Percolation.open(), kept as the reference for the openAll benchmark:
+    // it converts and validates the coordinates of the site and of each neighbour
+    private static final class ValidatedPercolation {
+        private final int n;
+        private final WeightedQuickUnionUF uf;
+        private final WeightedQuickUnionUF ufForFull;
+        private final boolean[] openSites;
+        private final int topVirtualSite;
+        private final int bottomVirtualSite;
+
+        ValidatedPercolation(int n) {
+            this.n = n;
+            this.uf = new WeightedQuickUnionUF(n * n + 2);
+            this.ufForFull = new WeightedQuickUnionUF(n * n + 1);
+            this.openSites = new boolean[n * n];
+            this.topVirtualSite = n * n;
+            this.bottomVirtualSite = n * n + 1;
+        }
+
+        private int xyTo1D(int row, int col) {
+            if (row < 1 || row > n || col < 1 || col > n) {
+                throw new IllegalArgumentException("Row and col must be between 1 and n.");
+            }
+            return (row - 1) * n + (col - 1);
+        }
+
+        void open(int row, int col) {
+            int index = xyTo1D(row, col);
+            if (!openSites[index]) {
+                openSites[index] = true;
+                if (row == 1) {
+                    uf.union(index, topVirtualSite);
+                    ufForFull.union(index, topVirtualSite);
+                }
+                if (row == n) uf.union(index, bottomVirtualSite);
+                connectIfOpen(row, col, row - 1, col);
+                connectIfOpen(row, col, row + 1, col);
+                connectIfOpen(row, col, row, col - 1);
+                connectIfOpen(row, col, row, col + 1);
+            }
+        }
+
+        private void connectIfOpen(int row1, int col1, int row2, int col2) {
+            if (row2 >= 1 && row2 <= n && col2 >= 1 && col2 <= n && isOpen(row2, col2)) {
+                uf.union(xyTo1D(row1, col1), xyTo1D(row2, col2));
+                ufForFull.union(xyTo1D(row1, col1), xyTo1D(row2, col2));
+            }
+        }
+
+        boolean isOpen(int row, int col) {
+            return openSites[xyTo1D(row, col)];
+        }
+    }
+
+    // time opening the same random sites one at a time and in bulk
+    private static void openAll(int n, int opens) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] rows = new int[opens];
+        int[] cols = new int[opens];
+        int[] indices = new int[opens];
+        for (int i = 0; i < opens; i++) {
+            rows[i] = random.nextInt(1, n + 1);
+            cols[i] = random.nextInt(1, n + 1);
+            indices[i] = (rows[i] - 1) * n + (cols[i] - 1);
+        }
+        for (int round = 0; round < 2; round++) {
+            boolean warmup = round == 0;
+
+            Stopwatch timer = new Stopwatch();
+            ValidatedPercolation reference = new ValidatedPercolation(n);
+            for (int i = 0; i < opens; i++) {
+                reference.open(rows[i], cols[i]);
+            }
+            report(warmup, "validated open", timer.elapsedTime(), opens);
+
+            timer = new Stopwatch();
+            Percolation perc = new Percolation(n);
+            for (int i = 0; i < opens; i++) {
+                perc.open(rows[i], cols[i]);
+            }
+            report(warmup, "open", timer.elapsedTime(), opens);
+
+            timer = new Stopwatch();
+            perc = new Percolation(n);
+            perc.openAll(rows, cols);
+            report(warmup, "openAll(rows, cols)", timer.elapsedTime(), opens);
+
+            timer = new Stopwatch();
+            perc = new Percolation(n);
+            perc.openAll(indices);
+            report(warmup, "openAll(indices)", timer.elapsedTime(), opens);
+        }
+    }
+
+    // time opening the same random sites of CompactPercolation in each layout
+    private static void layout(int n, long opens) {
+        for (CompactPercolation.Layout layout : CompactPercolation.Layout.values()) {
+            for (int round = 0; round < 2; round++) {
+                SplittableRandom random = new SplittableRandom(SEED);
+                Stopwatch timer = new Stopwatch();
+                CompactPercolation perc = new CompactPercolation(n, layout);
+                for (long i = 0; i < opens; i++) {
+                    perc.open(random.nextInt(1, n + 1), random.nextInt(1, n + 1));
+                }
+                report(round == 0, layout.toString(), timer.elapsedTime(), opens);
+            }
+        }
+    }
+
+    private static void report(boolean warmup, String name, double elapsed, long operations) {
+        if (warmup) return;
+        StdOut.printf("%-20s %8.3f s %14.1f ops/s%n", name, elapsed, operations / elapsed);
+    }
+
+    public static void main(String[] args) {
+        String mode = args[0];
+        int n = Integer.parseInt(args[1]);
+        if (mode.equals("sampling")) {
+            int trials = Integer.parseInt(args[2]);
+            int workers = args.length >= 4 ? Integer.parseInt(args[3]) : 1;
+            sampling(n, trials, workers);
+        }
+        else if (mode.equals("openAll")) {
+            openAll(n, Integer.parseInt(args[2]));
+        }
+        else if (mode.equals("layout")) {
+            long opens = args.length >= 3 ? Long.parseLong(args[2]) : (long) (0.6 * n * n);
+            layout(n, opens);
+        }
+        else if (mode.equals("layoutSweep")) {
+            for (int size = 1024; size <= n; size *= 2) {
+                StdOut.println("n = " + size);
+                layout(size, (long) (0.6 * size * size));
+            }
+        }
+        else {
+            throw new IllegalArgumentException("Unknown benchmark: " + mode);
+        }
+    }
+}
@@ -2,22 +2,89 @@
  *  Name:              Yun Zhu
  *  Coursera User ID:
  *  Last modified:     August 16, 2024
+ *
+ *  Execution:  java PercolationStats n trials
+ *              java PercolationStats n trials workers [seed [sampling [width]]]
+ *              java PercolationStats n trials workers seed sampling [width] -checkpoint file
+ *              java PercolationStats n trials workers seed sampling [width] -check
+ *
+ *  With workers, the trials run in parallel from the given seed, choosing
+ *  sites with sampling (REJECTION or SHUFFLE). A width stops the trials
+ *  early once the 95% confidence interval is at most that wide.
+ *  -checkpoint records the progress in file and resumes from it if it
+ *  exists, with or without a width; -check runs the trials without a
+ *  checkpoint and with a new one, then resumes from the finished
+ *  checkpoint, and fails unless all three runs give the same statistics.
+ *  The lattice constructors take a checkpoint file in the same way.
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
 
 public class PercolationStats {
     private static final double CONFIDENCE_95 = 1.96;
-    private final double[] thresholds;
-    private final int trials;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int TRIALS_PER_TASK = 4;
+    // trials between precision checks; every run merges batches of this size in order,
+    // so the statistics do not depend on the workers, the early stop or checkpoints.
+    // The pool runs one batch per worker at a time, so no batch waits for a barrier
+    // after every TRIALS_PER_BATCH / TRIALS_PER_TASK leaves
+    private static final int TRIALS_PER_BATCH = 256;
+    private static final int CHECKPOINT_MAGIC = 0x50435332; // "PCS2"
+    private final RunningStats thresholds = new RunningStats();
+    private final double seconds;
+
+    // how each trial chooses the next site to open
+    public enum Sampling {
+        // draw uniform (row, col) pairs, discarding sites that are already open
+        REJECTION,
+        // open sites in the order of a lazily generated random permutation
+        SHUFFLE
+    }
+
+    // one kind of trial: run(random) simulates one system with the random stream and
+    // returns its threshold. A Trial may reuse scratch space between calls, so each
+    // worker thread gets its own from the constructor's factory, but its result
+    // depends only on the stream: otherwise how trials are grouped into batches and
+    // tasks would change the results
+    private interface Trial {
+        double run(SplittableRandom random);
+    }
+
+    // where a run records its progress, with a description of the system its trials
+    // simulate, which must match when it resumes
+    private static final class Checkpoint {
+        private final Path file;
+        private final String system;
+
+        Checkpoint(Path file, String system) {
+            this.file = file;
+            this.system = system;
+        }
+    }
 
     // perform independent trials on an n-by-n grid
     public PercolationStats(int n, int trials) {
         if (n <= 0 || trials <= 0)
             throw new IllegalArgumentException("N and trials must be positive.");
-        this.trials = trials;
-        this.thresholds = new double[trials];
+        long start = System.nanoTime();
         for (int t = 0; t < trials; t++) {
             Percolation perc = new Percolation(n);
             while (!perc.percolates()) {
@@ -25,40 +92,469 @@ public class PercolationStats {
                 int col = StdRandom.uniformInt(1, n + 1);
                 if (!perc.isOpen(row, col)) perc.open(row, col);
             }
-            thresholds[t] = (double) perc.numberOfOpenSites() / (n * n);
+            thresholds.add((double) perc.numberOfOpenSites() / (n * n));
         }
+        this.seconds = (System.nanoTime() - start) / 1e9;
+    }
+
+    // perform independent trials on an n-by-n grid using the given number of workers;
+    // trial t draws from its own stream derived from (seed, t), so the results are
+    // the same for a given seed whatever the number of workers
+    public PercolationStats(int n, int trials, int workers, long seed) {
+        this(n, trials, workers, seed, Sampling.REJECTION);
+    }
+
+    // same as above, choosing sites to open with the given sampling mode
+    public PercolationStats(int n, int trials, int workers, long seed, Sampling sampling) {
+        if (n <= 0 || trials <= 0)
+            throw new IllegalArgumentException("N and trials must be positive.");
+        if (sampling == null) throw new IllegalArgumentException("Sampling cannot be null.");
+        this.seconds = run(gridTrials(n, sampling), seed, workers, trials, 0.0, null);
+    }
+
+    // same as above, but records the progress in the checkpoint file after each batch
+    // of trials, which does not change the results; if the file already exists, the run
+    // resumes where the checkpoint left off (it must come from a run with the same
+    // arguments)
+    public PercolationStats(int n, int trials, int workers, long seed, Sampling sampling,
+                            Path checkpoint) {
+        if (n <= 0 || trials <= 0)
+            throw new IllegalArgumentException("N and trials must be positive.");
+        if (sampling == null) throw new IllegalArgumentException("Sampling cannot be null.");
+        if (checkpoint == null) throw new IllegalArgumentException("Checkpoint cannot be null.");
+        this.seconds = run(gridTrials(n, sampling), seed, workers, trials, 0.0,
+                           new Checkpoint(checkpoint, gridSystem(n, sampling)));
+    }
+
+    // perform trials on an n-by-n grid in batches until the 95% confidence interval is
+    // at most width wide or maxTrials trials have run; batches have a fixed size, so
+    // the number of trials and the results depend on the seed but not on the workers
+    public PercolationStats(int n, double width, int maxTrials, int workers, long seed,
+                            Sampling sampling) {
+        if (n <= 0 || maxTrials <= 0)
+            throw new IllegalArgumentException("N and maxTrials must be positive.");
+        if (!(width > 0.0)) throw new IllegalArgumentException("Width must be positive.");
+        if (sampling == null) throw new IllegalArgumentException("Sampling cannot be null.");
+        this.seconds = run(gridTrials(n, sampling), seed, workers, maxTrials, width, null);
+    }
+
+    // same as above, but records the progress in the checkpoint file after each wave of
+    // batches and resumes from it if it exists, as in the constructor with trials
+    public PercolationStats(int n, double width, int maxTrials, int workers, long seed,
+                            Sampling sampling, Path checkpoint) {
+        if (n <= 0 || maxTrials <= 0)
+            throw new IllegalArgumentException("N and maxTrials must be positive.");
+        if (!(width > 0.0)) throw new IllegalArgumentException("Width must be positive.");
+        if (sampling == null) throw new IllegalArgumentException("Sampling cannot be null.");
+        if (checkpoint == null) throw new IllegalArgumentException("Checkpoint cannot be null.");
+        this.seconds = run(gridTrials(n, sampling), seed, workers, maxTrials, width,
+                           new Checkpoint(checkpoint, gridSystem(n, sampling)));
+    }
+
+    // perform independent trials on the lattice using the given number of workers,
+    // opening its sites or bonds (according to model) in random order until the
+    // system percolates; the threshold is the fraction of sites or bonds opened
+    public PercolationStats(Lattice lattice, LatticePercolation.Model model, int trials,
+                            int workers, long seed) {
+        if (trials <= 0) throw new IllegalArgumentException("Trials must be positive.");
+        this.seconds = run(latticeTrials(lattice, model), seed, workers, trials, 0.0, null);
+    }
+
+    // same as above, but records the progress in the checkpoint file after each wave of
+    // batches and resumes from it if it exists, as in the grid constructors
+    public PercolationStats(Lattice lattice, LatticePercolation.Model model, int trials,
+                            int workers, long seed, Path checkpoint) {
+        if (trials <= 0) throw new IllegalArgumentException("Trials must be positive.");
+        if (checkpoint == null) throw new IllegalArgumentException("Checkpoint cannot be null.");
+        Supplier<Trial> trialFactory = latticeTrials(lattice, model);
+        this.seconds = run(trialFactory, seed, workers, trials, 0.0,
+                           new Checkpoint(checkpoint, latticeSystem(lattice, model)));
+    }
+
+    // trials that open the sites or bonds of the lattice in random order
+    private static Supplier<Trial> latticeTrials(Lattice lattice, LatticePercolation.Model model) {
+        if (lattice == null || model == null)
+            throw new IllegalArgumentException("Lattice and model cannot be null.");
+        if (model == LatticePercolation.Model.BOND && lattice.bonds() == 0)
+            throw new IllegalArgumentException("Lattice has no bonds.");
+        if (model == LatticePercolation.Model.BOND
+                && lattice.sites() * (long) (lattice.directions() / 2) > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Lattice has too many bonds.");
+        int[] elements = latticeOrder(lattice, model);
+        return () -> {
+            int[] order = new int[elements.length];
+            return random -> {
+                System.arraycopy(elements, 0, order, 0, elements.length);
+                return latticeTrial(lattice, model, random, order);
+            };
+        };
+    }
+
+    // checkpoint description of trials on an n-by-n grid
+    private static String gridSystem(int n, Sampling sampling) {
+        return "grid " + n + " " + sampling;
+    }
+
+    // checkpoint description of trials on the lattice, with a hash of its neighbor table
+    // and boundaries so that a run does not resume on another lattice of the same size
+    private static String latticeSystem(Lattice lattice, LatticePercolation.Model model) {
+        long hash = lattice.sites();
+        for (int site = 0; site < lattice.sites(); site++) {
+            int boundary = (lattice.isTop(site) ? 1 : 0) | (lattice.isBottom(site) ? 2 : 0);
+            hash = mix64(hash + boundary);
+            for (int d = 0; d < lattice.directions(); d++) {
+                hash = mix64(hash + lattice.neighbor(site, d));
+            }
+        }
+        return "lattice " + lattice.sites() + " " + lattice.directions() + " " + model + " "
+                + Long.toHexString(hash);
+    }
+
+    // trials on an n-by-n grid that choose sites with the given sampling mode
+    private static Supplier<Trial> gridTrials(int n, Sampling sampling) {
+        if (sampling == Sampling.REJECTION) return () -> random -> trial(n, random);
+        return () -> {
+            int[] sites = new int[n * n];
+            return random -> shuffledTrial(n, random, sites);
+        };
+    }
+
+    // run up to maxTrials trials of the kind trialFactory makes, from the given seed, in
+    // batches on a pool of the given number of workers, stopping early once the
+    // confidence interval is at most width wide (if width is positive) and saving
+    // progress to checkpoint (if not null) after each wave of batches; return the
+    // elapsed seconds, including those of the runs recorded in the checkpoint. The
+    // batches of a wave run together and are merged in order, checking the interval
+    // after each; those after the batch that makes it narrow enough are discarded
+    private double run(Supplier<Trial> trialFactory, long seed, int workers, int maxTrials,
+                       double width, Checkpoint checkpoint) {
+        if (workers <= 0) throw new IllegalArgumentException("Workers must be positive.");
+        long start = System.nanoTime();
+        int first = 0;
+        double previous = 0.0;
+        if (checkpoint != null && Files.exists(checkpoint.file)) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(checkpoint.file)))) {
+                if (in.readInt() != CHECKPOINT_MAGIC || !in.readUTF().equals(checkpoint.system)
+                        || in.readLong() != seed || in.readInt() != maxTrials
+                        || in.readDouble() != width) {
+                    throw new IllegalArgumentException("Checkpoint " + checkpoint.file
+                                                       + " is from a run with other arguments.");
+                }
+                first = in.readInt();
+                previous = in.readDouble();
+                thresholds.read(in);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not read checkpoint " + checkpoint.file, e);
+            }
+        }
+        ThreadLocal<Trial> trials = ThreadLocal.withInitial(trialFactory);
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            int next = first;
+            while (next < maxTrials && !precise(width)) {
+                List<ForkJoinTask<RunningStats>> wave = new ArrayList<>();
+                for (long lo = next; wave.size() < workers && lo < maxTrials;
+                     lo += TRIALS_PER_BATCH) {
+                    int hi = (int) Math.min(maxTrials, lo + TRIALS_PER_BATCH);
+                    wave.add(pool.submit(new TrialTask(trials, seed, (int) lo, hi)));
+                }
+                for (ForkJoinTask<RunningStats> batch : wave) {
+                    if (precise(width)) {
+                        batch.cancel(false);
+                        continue;
+                    }
+                    thresholds.add(batch.join());
+                    next = (int) Math.min(maxTrials, (long) next + TRIALS_PER_BATCH);
+                }
+                double elapsed = previous + (System.nanoTime() - start) / 1e9;
+                if (checkpoint != null)
+                    saveCheckpoint(checkpoint, seed, maxTrials, width, next, elapsed);
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        return previous + (System.nanoTime() - start) / 1e9;
+    }
+
+    // write the run's arguments, the next trial to run, the elapsed time and the
+    // statistics so far to a temporary file, then move it over the checkpoint
+    private void saveCheckpoint(Checkpoint checkpoint, long seed, int maxTrials, double width,
+                                int next, double elapsed) {
+        Path temporary = checkpoint.file.resolveSibling(checkpoint.file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeUTF(checkpoint.system);
+                out.writeLong(seed);
+                out.writeInt(maxTrials);
+                out.writeDouble(width);
+                out.writeInt(next);
+                out.writeDouble(elapsed);
+                thresholds.write(out);
+            }
+            Files.move(temporary, checkpoint.file, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not write checkpoint " + checkpoint.file, e);
+        }
+    }
+
+    // is the confidence interval at most width wide? never true if width is not positive
+    private boolean precise(double width) {
+        return width > 0.0 && thresholds.count() >= 2 && confidenceHi() - confidenceLo() <= width;
+    }
+
+    // runs trials lo (inclusive) to hi (exclusive), splitting the range across workers;
+    // the split points depend only on lo and hi, so the statistics merge in a fixed order
+    private static final class TrialTask extends RecursiveTask<RunningStats> {
+        private static final long serialVersionUID = 1L;
+        private final ThreadLocal<Trial> trials;
+        private final long seed;
+        private final int lo;
+        private final int hi;
+
+        TrialTask(ThreadLocal<Trial> trials, long seed, int lo, int hi) {
+            this.trials = trials;
+            this.seed = seed;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected RunningStats compute() {
+            if (hi - lo <= TRIALS_PER_TASK) {
+                RunningStats stats = new RunningStats();
+                Trial trial = trials.get();
+                for (int t = lo; t < hi; t++) {
+                    stats.add(trial.run(trialRandom(seed, t)));
+                }
+                return stats;
+            }
+            int mid = (lo + hi) >>> 1;
+            TrialTask left = new TrialTask(trials, seed, lo, mid);
+            TrialTask right = new TrialTask(trials, seed, mid, hi);
+            left.fork();
+            RunningStats stats = right.compute();
+            RunningStats merged = left.join();
+            merged.add(stats);
+            return merged;
+        }
+    }
+
+    // open random sites until the system percolates, return the fraction of open sites
+    private static double trial(int n, SplittableRandom random) {
+        Percolation perc = new Percolation(n);
+        while (!perc.percolates()) {
+            int row = random.nextInt(1, n + 1);
+            int col = random.nextInt(1, n + 1);
+            if (!perc.isOpen(row, col)) perc.open(row, col);
+        }
+        return perc.numberOfOpenSites() / ((double) n * n);
+    }
+
+    // open sites in the order of an incremental Fisher-Yates shuffle of sites, so each
+    // opened site costs exactly one draw; sites is scratch space of length n * n, reset
+    // to the identity first so that the trial depends only on its random stream
+    private static double shuffledTrial(int n, SplittableRandom random, int[] sites) {
+        Percolation perc = new Percolation(n);
+        int count = sites.length;
+        for (int i = 0; i < count; i++) sites[i] = i;
+        for (int k = 0; !perc.percolates(); k++) {
+            int j = random.nextInt(k, count);
+            int site = sites[j];
+            sites[j] = sites[k];
+            sites[k] = site;
+            perc.open(site / n + 1, site % n + 1);
+        }
+        return perc.numberOfOpenSites() / ((double) n * n);
+    }
+
+    // open the sites or bonds of the lattice in the order of an incremental Fisher-Yates
+    // shuffle of order, which the caller fills with the site or bond indices
+    private static double latticeTrial(Lattice lattice, LatticePercolation.Model model,
+                                       SplittableRandom random, int[] order) {
+        LatticePercolation perc = new LatticePercolation(lattice);
+        int half = lattice.directions() / 2;
+        int count = order.length;
+        for (int k = 0; !perc.percolates(); k++) {
+            if (k == count)
+                throw new IllegalArgumentException("Lattice does not percolate when fully open.");
+            int j = random.nextInt(k, count);
+            int element = order[j];
+            order[j] = order[k];
+            order[k] = element;
+            if (model == LatticePercolation.Model.SITE) perc.openSite(element);
+            else perc.openBond(element / half, 2 * (element % half));
+        }
+        if (model == LatticePercolation.Model.SITE)
+            return perc.numberOfOpenSites() / (double) lattice.sites();
+        return perc.numberOfOpenBonds() / (double) lattice.bonds();
+    }
+
+    // the sites of the lattice, or its bonds numbered site * (directions / 2) + i for
+    // the bond in direction 2i
+    private static int[] latticeOrder(Lattice lattice, LatticePercolation.Model model) {
+        if (model == LatticePercolation.Model.SITE) return identity(lattice.sites());
+        int half = lattice.directions() / 2;
+        int[] bonds = new int[(int) lattice.bonds()];
+        int count = 0;
+        for (int site = 0; site < lattice.sites(); site++) {
+            for (int i = 0; i < half; i++) {
+                if (lattice.neighbor(site, 2 * i) >= 0) bonds[count++] = site * half + i;
+            }
+        }
+        return bonds;
+    }
+
+    // the identity permutation of 0..count-1
+    private static int[] identity(int count) {
+        int[] a = new int[count];
+        for (int i = 0; i < count; i++) a[i] = i;
+        return a;
+    }
+
+    // independent random stream for trial t
+    private static SplittableRandom trialRandom(long seed, int t) {
+        return new SplittableRandom(mix64(seed + GOLDEN_GAMMA * (t + 1)));
+    }
+
+    // Stafford's variant 13 of the MurmurHash3 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
 
     // sample mean of percolation threshold
     public double mean() {
-        return StdStats.mean(thresholds);
+        return thresholds.mean();
     }
 
     // sample standard deviation of percolation threshold
     public double stddev() {
-        return StdStats.stddev(thresholds);
+        return Math.sqrt(thresholds.variance());
     }
 
     // low endpoint of 95% confidence interval
     public double confidenceLo() {
-        return mean() - (CONFIDENCE_95 * stddev() / Math.sqrt(trials));
+        return mean() - (CONFIDENCE_95 * stddev() / Math.sqrt(thresholds.count()));
     }
 
     // high endpoint of 95% confidence interval
     public double confidenceHi() {
-        return mean() + (CONFIDENCE_95 * stddev() / Math.sqrt(trials));
+        return mean() + (CONFIDENCE_95 * stddev() / Math.sqrt(thresholds.count()));
+    }
+
+    // number of trials run
+    public long trials() {
+        return thresholds.count();
+    }
+
+    // number of trials completed per second of wall-clock time
+    public double trialsPerSecond() {
+        return thresholds.count() / seconds;
+    }
+
+    // run the trials without a checkpoint, with a new checkpoint and again from the
+    // finished checkpoint, and throw unless the three runs agree exactly; a positive
+    // width stops each run early as in the constructors with a width
+    private static PercolationStats checkCheckpoint(int n, int trials, int workers, long seed,
+                                                    Sampling sampling, double width) {
+        PercolationStats plain = width > 0.0
+                                 ? new PercolationStats(n, width, trials, workers, seed, sampling)
+                                 : new PercolationStats(n, trials, workers, seed, sampling);
+        Path checkpoint;
+        try {
+            checkpoint = Files.createTempFile("PercolationStats", ".ckpt");
+            Files.delete(checkpoint);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not create a checkpoint file", e);
+        }
+        try {
+            PercolationStats saved = checkpointed(n, trials, workers, seed, sampling, width,
+                                                  checkpoint);
+            PercolationStats resumed = checkpointed(n, trials, workers, seed, sampling, width,
+                                                    checkpoint);
+            for (PercolationStats stats : new PercolationStats[] { saved, resumed }) {
+                if (stats.trials() != plain.trials() || stats.mean() != plain.mean()
+                        || stats.stddev() != plain.stddev()) {
+                    throw new IllegalStateException(
+                            "Checkpointed run gives mean " + stats.mean() + ", plain run "
+                                    + plain.mean() + ".");
+                }
+            }
+            System.out.println("Checkpointed and resumed runs match the plain run.");
+            return plain;
+        }
+        finally {
+            try {
+                Files.deleteIfExists(checkpoint);
+            }
+            catch (IOException e) {
+                System.err.println("Could not delete " + checkpoint + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // the checkpointed run with the given trials, or width if it is positive
+    private static PercolationStats checkpointed(int n, int trials, int workers, long seed,
+                                                 Sampling sampling, double width,
+                                                 Path checkpoint) {
+        if (width > 0.0)
+            return new PercolationStats(n, width, trials, workers, seed, sampling, checkpoint);
+        return new PercolationStats(n, trials, workers, seed, sampling, checkpoint);
     }
 
     // test client (see below)
     public static void main(String[] args) {
         int n = Integer.parseInt(args[0]);
         int trials = Integer.parseInt(args[1]);
-        PercolationStats stats = new PercolationStats(n, trials);
+        PercolationStats stats;
+        if (args.length >= 3) {
+            int workers = Integer.parseInt(args[2]);
+            long seed = args.length >= 4 ? Long.parseLong(args[3]) : System.nanoTime();
+            Sampling sampling = args.length >= 5 ? Sampling.valueOf(args[4]) : Sampling.REJECTION;
+            int next = 5;
+            double width = 0.0;
+            if (args.length > next && !args[next].startsWith("-")) {
+                width = Double.parseDouble(args[next++]);
+                if (!(width > 0.0)) throw new IllegalArgumentException("Width must be positive.");
+            }
+            if (args.length > next && args[next].equals("-checkpoint")) {
+                if (args.length <= next + 1)
+                    throw new IllegalArgumentException("Missing checkpoint file.");
+                Path checkpoint = Paths.get(args[next + 1]);
+                stats = checkpointed(n, trials, workers, seed, sampling, width, checkpoint);
+            }
+            else if (args.length > next && args[next].equals("-check")) {
+                stats = checkCheckpoint(n, trials, workers, seed, sampling, width);
+            }
+            else if (args.length > next) {
+                throw new IllegalArgumentException("Unknown option " + args[next] + ".");
+            }
+            else if (width > 0.0) {
+                stats = new PercolationStats(n, width, trials, workers, seed, sampling);
+            }
+            else {
+                stats = new PercolationStats(n, trials, workers, seed, sampling);
+            }
+        }
+        else {
+            stats = new PercolationStats(n, trials);
+        }
         System.out.println("mean = " + stats.mean());
         System.out.println("stddev = " + stats.stddev());
         System.out.println(
                 "95% confidence interval = [" + stats.confidenceLo() + ", " + stats.confidenceHi()
                         + "]");
+        System.out.println("trials = " + stats.trials());
+        System.out.println("throughput = " + stats.trialsPerSecond() + " trials/second");
     }
 
 }
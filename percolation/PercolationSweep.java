@@ -0,0 +1,224 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Newman-Ziff estimator: each trial opens every site of an n-by-n grid in
+ *  the order of a random permutation, tracking clusters with a union-find
+ *  whose roots store the negated cluster size and top/bottom flags. One
+ *  pass per trial records, for every number of open sites k, whether the
+ *  system percolates and the size of the largest cluster. Averaging over
+ *  trials gives the microcanonical curves; convolving them with the
+ *  binomial distribution gives the curves as functions of the site vacancy
+ *  probability p.
+ **************************************************************************** */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class PercolationSweep {
+    private static final double CONFIDENCE_95 = 1.96;
+    private static final byte TOP = 1;
+    private static final byte BOTTOM = 2;
+    private static final byte OPEN = 4;
+    // binomial weights below this fraction of the peak are ignored
+    private static final double EPSILON = 1e-15;
+
+    private final int n;
+    private final int sites;
+    private final int trials;
+    // percolationCount[k]: number of trials that percolate after k sites are open
+    private final double[] percolationCount;
+    // largestClusterSum[k]: sum over trials of the largest cluster size after k opens
+    private final double[] largestClusterSum;
+    private final RunningStats thresholds = new RunningStats();
+
+    // sweep trials independent random orderings of the sites of an n-by-n grid
+    public PercolationSweep(int n, int trials, long seed) {
+        if (n <= 0 || trials <= 0)
+            throw new IllegalArgumentException("N and trials must be positive.");
+        if ((long) n * n >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("N is too large.");
+        this.n = n;
+        this.sites = n * n;
+        this.trials = trials;
+        this.percolationCount = new double[sites + 1];
+        this.largestClusterSum = new double[sites + 1];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] order = new int[sites];
+        for (int i = 0; i < sites; i++) order[i] = i;
+        // for open sites, parent[i] >= 0 is the parent of site i and parent[i] < 0 marks
+        // a root of -parent[i] sites; flags[i] is 0 for blocked sites
+        int[] parent = new int[sites];
+        byte[] flags = new byte[sites];
+        int[] firstPercolating = new int[sites + 1];
+        for (int t = 0; t < trials; t++) {
+            int k = sweep(random, order, parent, flags);
+            firstPercolating[k]++;
+            thresholds.add((double) k / sites);
+        }
+        long count = 0;
+        for (int k = 0; k <= sites; k++) {
+            count += firstPercolating[k];
+            percolationCount[k] = count;
+        }
+    }
+
+    // open all sites in a random order, accumulating the largest cluster size after
+    // each open; return the number of open sites at which the system first percolates
+    private int sweep(SplittableRandom random, int[] order, int[] parent, byte[] flags) {
+        // shuffling the previous trial's permutation still gives a uniform permutation
+        for (int i = sites - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        Arrays.fill(flags, (byte) 0);
+
+        int largest = 0;
+        int firstPercolating = 0;
+        for (int k = 1; k <= sites; k++) {
+            int site = order[k - 1];
+            int row = site / n;
+            int col = site - row * n;
+            parent[site] = -1;
+            flags[site] = OPEN;
+            if (row == 0) flags[site] |= TOP;
+            if (row == n - 1) flags[site] |= BOTTOM;
+            int root = site;
+            if (row > 0 && flags[site - n] != 0) root = union(parent, flags, root, site - n);
+            if (row < n - 1 && flags[site + n] != 0) root = union(parent, flags, root, site + n);
+            if (col > 0 && flags[site - 1] != 0) root = union(parent, flags, root, site - 1);
+            if (col < n - 1 && flags[site + 1] != 0) root = union(parent, flags, root, site + 1);
+            largest = Math.max(largest, -parent[root]);
+            largestClusterSum[k] += largest;
+            if (firstPercolating == 0 && (flags[root] & (TOP | BOTTOM)) == (TOP | BOTTOM)) {
+                firstPercolating = k;
+            }
+        }
+        return firstPercolating;
+    }
+
+    // root of open site p, halving the path on the way up
+    private static int find(int[] parent, int p) {
+        while (parent[p] >= 0) {
+            if (parent[parent[p]] >= 0) parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    // union by size of the cluster with the given root and the cluster of open site q;
+    // return the new root
+    private static int union(int[] parent, byte[] flags, int root, int q) {
+        int other = find(parent, q);
+        if (other == root) return root;
+        if (parent[root] > parent[other]) {
+            int swap = root;
+            root = other;
+            other = swap;
+        }
+        parent[root] += parent[other];
+        parent[other] = root;
+        flags[root] |= flags[other];
+        return root;
+    }
+
+    // sample mean of percolation threshold
+    public double mean() {
+        return thresholds.mean();
+    }
+
+    // sample standard deviation of percolation threshold
+    public double stddev() {
+        return Math.sqrt(thresholds.variance());
+    }
+
+    // low endpoint of 95% confidence interval
+    public double confidenceLo() {
+        return mean() - (CONFIDENCE_95 * stddev() / Math.sqrt(trials));
+    }
+
+    // high endpoint of 95% confidence interval
+    public double confidenceHi() {
+        return mean() + (CONFIDENCE_95 * stddev() / Math.sqrt(trials));
+    }
+
+    // fraction of trials that percolate once exactly k sites are open
+    public double percolationProbabilityAfter(int k) {
+        validate(k);
+        return percolationCount[k] / trials;
+    }
+
+    // mean size of the largest cluster, as a fraction of all sites, once k sites are open
+    public double largestClusterFractionAfter(int k) {
+        validate(k);
+        return largestClusterSum[k] / trials / sites;
+    }
+
+    // probability that the system percolates when each site is open with probability p
+    public double percolationProbability(double p) {
+        validate(p);
+        return convolve(p, percolationCount) / trials;
+    }
+
+    // mean size of the largest cluster, as a fraction of all sites, when each site is open
+    // with probability p
+    public double largestClusterFraction(double p) {
+        validate(p);
+        return convolve(p, largestClusterSum) / trials / sites;
+    }
+
+    // sum over k of binomial(sites, k, p) * values[k], walking outwards from the mode
+    // until the weights become negligible
+    private double convolve(double p, double[] values) {
+        if (p == 0.0) return values[0];
+        if (p == 1.0) return values[sites];
+        int mode = (int) Math.min(sites, Math.floor((sites + 1) * p));
+        double ratio = p / (1.0 - p);
+        double weightSum = 1.0;
+        double sum = values[mode];
+        double weight = 1.0;
+        for (int k = mode + 1; k <= sites && weight > EPSILON; k++) {
+            weight *= ratio * (sites - k + 1) / k;
+            weightSum += weight;
+            sum += weight * values[k];
+        }
+        weight = 1.0;
+        for (int k = mode - 1; k >= 0 && weight > EPSILON; k--) {
+            weight *= (k + 1) / (ratio * (sites - k));
+            weightSum += weight;
+            sum += weight * values[k];
+        }
+        return sum / weightSum;
+    }
+
+    private void validate(int k) {
+        if (k < 0 || k > sites)
+            throw new IllegalArgumentException("K must be between 0 and n * n.");
+    }
+
+    private void validate(double p) {
+        if (!(p >= 0.0 && p <= 1.0)) throw new IllegalArgumentException("P must be in [0, 1].");
+    }
+
+    // test client: java PercolationSweep n trials [seed]
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : System.nanoTime();
+        PercolationSweep sweep = new PercolationSweep(n, trials, seed);
+        System.out.println("mean = " + sweep.mean());
+        System.out.println("stddev = " + sweep.stddev());
+        System.out.println(
+                "95% confidence interval = [" + sweep.confidenceLo() + ", " + sweep.confidenceHi()
+                        + "]");
+        for (int i = 50; i <= 70; i++) {
+            double p = i / 100.0;
+            System.out.printf("p = %.2f  percolates = %.4f  largest cluster = %.4f%n",
+                              p, sweep.percolationProbability(p), sweep.largestClusterFraction(p));
+        }
+    }
+}
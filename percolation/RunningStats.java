@@ -0,0 +1,66 @@
+/* *****************************************************************************
+ *  Name:              Yun Zhu
+ *  Coursera User ID:
+ *  Last modified:     August 16, 2024
+ *
+ *  Mean and variance of a stream of values, updated with Welford's
+ *  algorithm and merged with the pairwise formula of Chan et al., so that
+ *  neither loses precision to cancellation the way sum - n * mean^2 does.
+ *  Shared by PercolationStats and PercolationSweep.
+ **************************************************************************** */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class RunningStats {
+    private long count;
+    private double mean;
+    private double sumOfSquares; // sum of squared deviations from the mean
+
+    // add one value
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (x - mean);
+    }
+
+    // combine with the statistics of another stream (Chan et al.)
+    public void add(RunningStats that) {
+        if (that.count == 0) return;
+        long total = count + that.count;
+        double delta = that.mean - mean;
+        mean += delta * that.count / total;
+        double weight = (double) count * that.count / total;
+        sumOfSquares += that.sumOfSquares + delta * delta * weight;
+        count = total;
+    }
+
+    // number of values added
+    public long count() {
+        return count;
+    }
+
+    // sample mean
+    public double mean() {
+        return mean;
+    }
+
+    // sample variance
+    public double variance() {
+        return sumOfSquares / (count - 1);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(sumOfSquares);
+    }
+
+    void read(DataInputStream in) throws IOException {
+        count = in.readLong();
+        mean = in.readDouble();
+        sumOfSquares = in.readDouble();
+    }
+}
@@ -0,0 +1,223 @@
+/* *****************************************************************************
+ *  Name: Yun Zhu
+ *  Date: August 19, 2024
+ *  Description: Thread-safe version of RandomizedQueue. The items are
+ *               striped across shards, each a resizing array with its own
+ *               lock, and each thread draws its random numbers from
+ *               ThreadLocalRandom, so threads that work on different
+ *               shards never contend. enqueue adds to a random shard.
+ *               sample and dequeue stay uniform across shards by
+ *               rejection: they pick a random shard and a random index
+ *               below an upper bound on every shard's size, and retry
+ *               if the index is not below that shard's size. Every item
+ *               is then chosen with the same probability, however
+ *               unevenly the shards are filled. The bound is raised by
+ *               enqueue and lowered again after a run of rejections.
+ **************************************************************************** */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentRandomizedQueue<Item> implements Iterable<Item> {
+    private static final int MIN_CAPACITY = 8;
+    private final Shard<Item>[] shards;
+    // at least the size of every shard, except briefly after a lowering raced with
+    // an enqueue; a shard found larger than the bound raises it again
+    private final AtomicInteger bound = new AtomicInteger();
+
+    // a resizing array guarded by its own monitor
+    private static final class Shard<Item> {
+        private Item[] items = (Item[]) new Object[MIN_CAPACITY];
+        private volatile int size;
+        private volatile long enqueued;  // number of enqueues so far, for emptiness checks
+    }
+
+    // construct an empty randomized queue with two shards per processor
+    public ConcurrentRandomizedQueue() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    // construct an empty randomized queue with the given number of shards
+    public ConcurrentRandomizedQueue(int shards) {
+        if (shards <= 0) throw new IllegalArgumentException("Shards must be positive.");
+        @SuppressWarnings("unchecked")
+        Shard<Item>[] array = (Shard<Item>[]) new Shard<?>[shards];
+        for (int i = 0; i < shards; i++) array[i] = new Shard<>();
+        this.shards = array;
+    }
+
+    // is the randomized queue empty? only a snapshot while other threads use it
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // return the number of items on the randomized queue; only a snapshot while
+    // other threads use it
+    public int size() {
+        int size = 0;
+        for (Shard<Item> shard : shards) size += shard.size;
+        return size;
+    }
+
+    // add the item
+    public void enqueue(Item item) {
+        if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+        Shard<Item> shard = shards[ThreadLocalRandom.current().nextInt(shards.length)];
+        synchronized (shard) {
+            int size = shard.size;
+            if (size == shard.items.length) resize(shard, 2 * size);
+            shard.items[size] = item;
+            raiseBound(size + 1);
+            shard.size = size + 1;
+            shard.enqueued++;
+        }
+    }
+
+    // remove and return a random item
+    public Item dequeue() {
+        return take(true);
+    }
+
+    // return a random item (but do not remove it)
+    public Item sample() {
+        return take(false);
+    }
+
+    // pick a shard and an index below the bound until the index holds an item
+    private Item take(boolean remove) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int misses = 0;
+        while (true) {
+            int b = bound.get();
+            if (b > 0) {
+                Shard<Item> shard = shards[random.nextInt(shards.length)];
+                int index = random.nextInt(b);
+                synchronized (shard) {
+                    int size = shard.size;
+                    if (size > b) {
+                        raiseBound(size);
+                        continue;
+                    }
+                    if (index < size) return remove ? remove(shard, index) : shard.items[index];
+                }
+            }
+            // the queue is empty or the bound is far above the largest shard
+            if (b == 0 || ++misses >= 2 * shards.length) {
+                misses = 0;
+                if (refreshBound(b) == 0) throw new NoSuchElementException("Queue is empty.");
+            }
+        }
+    }
+
+    // remove the item at index from the shard, whose lock is held
+    private static <Item> Item remove(Shard<Item> shard, int index) {
+        int size = shard.size - 1;
+        Item item = shard.items[index];
+        shard.items[index] = shard.items[size];
+        shard.items[size] = null;
+        shard.size = size;
+        if (shard.items.length > MIN_CAPACITY && size == shard.items.length / 4) {
+            resize(shard, shard.items.length / 2);
+        }
+        return item;
+    }
+
+    private static <Item> void resize(Shard<Item> shard, int capacity) {
+        Item[] temp = (Item[]) new Object[capacity];
+        System.arraycopy(shard.items, 0, temp, 0, shard.size);
+        shard.items = temp;
+    }
+
+    // make the bound at least n
+    private void raiseBound(int n) {
+        while (true) {
+            int b = bound.get();
+            if (b >= n || bound.compareAndSet(b, n)) return;
+        }
+    }
+
+    // set the bound, if it is still b, to the size of the largest shard and return
+    // that size. It is 0 only if all shards were empty at one moment: no enqueue
+    // happened between reading a shard empty and the second count of enqueues, so
+    // every shard was still empty when the first scan ended
+    private int refreshBound(int b) {
+        while (true) {
+            long enqueued = 0;
+            int largest = 0;
+            for (Shard<Item> shard : shards) {
+                enqueued += shard.enqueued;
+                largest = Math.max(largest, shard.size);
+            }
+            if (largest > 0) {
+                if (largest < b) bound.compareAndSet(b, largest);
+                else raiseBound(largest);
+                return largest;
+            }
+            long again = 0;
+            for (Shard<Item> shard : shards) again += shard.enqueued;
+            if (again == enqueued) return 0;
+        }
+    }
+
+    // return an iterator over a snapshot of the items in uniformly random order; the
+    // snapshot of each shard is taken under its lock, but not of all shards at once
+    public Iterator<Item> iterator() {
+        List<Item> copy = new ArrayList<>();
+        for (Shard<Item> shard : shards) {
+            synchronized (shard) {
+                for (int i = 0; i < shard.size; i++) copy.add(shard.items[i]);
+            }
+        }
+        Collections.shuffle(copy, ThreadLocalRandom.current());
+        return Collections.unmodifiableList(copy).iterator();
+    }
+
+    // unit testing: java ConcurrentRandomizedQueue [threads] [items]
+    // threads enqueue and dequeue concurrently and every item must come out once;
+    // then the first item dequeued from a queue with uneven shards must look uniform
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length >= 1 ? Integer.parseInt(args[0]) : 4;
+        int n = args.length >= 2 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        ConcurrentRandomizedQueue<Integer> rq = new ConcurrentRandomizedQueue<>();
+        AtomicInteger[] taken = new AtomicInteger[n];
+        for (int i = 0; i < n; i++) taken[i] = new AtomicInteger();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = id; i < n; i += threads) {
+                    rq.enqueue(i);
+                    if (i % 3 != 0) taken[rq.dequeue()].incrementAndGet();
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+        while (!rq.isEmpty()) taken[rq.dequeue()].incrementAndGet();
+        for (int i = 0; i < n; i++) {
+            if (taken[i].get() != 1)
+                throw new IllegalStateException("Item " + i + " taken " + taken[i] + " times");
+        }
+        System.out.println("Every item dequeued exactly once with " + threads + " threads.");
+
+        // ten items spread over 64 shards leave most shards empty and a few with
+        // several items; the first item dequeued must still be uniform
+        int rounds = 100_000;
+        int[] count = new int[10];
+        for (int round = 0; round < rounds; round++) {
+            ConcurrentRandomizedQueue<Integer> uneven = new ConcurrentRandomizedQueue<>(64);
+            for (int i = 0; i < 10; i++) uneven.enqueue(i);
+            count[uneven.dequeue()]++;
+        }
+        for (int i = 0; i < 10; i++) {
+            System.out.printf("item %d dequeued first %.4f of the time%n", i,
+                              (double) count[i] / rounds);
+        }
+    }
+}
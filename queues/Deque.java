@@ -4,7 +4,11 @@
  *  Description:
  **************************************************************************** */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 public class Deque<Item> implements Iterable<Item> {
@@ -65,6 +69,57 @@ public class Deque<Item> implements Iterable<Item> {
         size++;
     }
 
+    // add the items to the front, in the order of the collection
+    public void addAllFirst(Collection<? extends Item> items) {
+        insertAfter(sentinel, items);
+    }
+
+    // add the items to the back, in the order of the collection
+    public void addAllLast(Collection<? extends Item> items) {
+        insertAfter(sentinel.prev, items);
+    }
+
+    // link the items into a chain of new nodes, then splice it in after node and add the
+    // number of nodes linked to size; the deque is not touched until every item has
+    // been checked, so a null item leaves it unchanged
+    private void insertAfter(Node node, Collection<? extends Item> items) {
+        if (items == null) throw new IllegalArgumentException("Collection cannot be null.");
+        Node first = null;
+        Node last = null;
+        int count = 0;
+        for (Item item : items) {
+            if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+            Node current = new Node(item, last, null);
+            if (last == null) first = current;
+            else last.next = current;
+            last = current;
+            count++;
+        }
+        if (count == 0) return;
+        first.prev = node;
+        last.next = node.next;
+        node.next.prev = last;
+        node.next = first;
+        size += count;
+    }
+
+    // remove up to max items from the front and add them, in order, to the collection;
+    // return the number of items moved
+    public int drainTo(Collection<? super Item> items, int max) {
+        if (items == null) throw new IllegalArgumentException("Collection cannot be null.");
+        if (max < 0) throw new IllegalArgumentException("Max cannot be negative.");
+        int count = Math.min(max, size);
+        Node current = sentinel.next;
+        for (int i = 0; i < count; i++) {
+            items.add(current.item);
+            current = current.next;
+        }
+        sentinel.next = current;
+        current.prev = sentinel;
+        size -= count;
+        return count;
+    }
+
     // remove and return the item from the front
     public Item removeFirst() {
         if (isEmpty()) throw new NoSuchElementException("Deque is empty.");
@@ -129,5 +184,11 @@ public class Deque<Item> implements Iterable<Item> {
         for (int item : deque) {
             System.out.println("Item in deque: " + item);
         }
+
+        deque.addAllFirst(Arrays.asList(-2, -1));
+        deque.addAllLast(Arrays.asList(4, 5, 6));
+        List<Integer> drained = new ArrayList<>();
+        System.out.println("Drained " + deque.drainTo(drained, 4) + " items: " + drained);
+        System.out.println("Size of deque after drain: " + deque.size());
     }
 }
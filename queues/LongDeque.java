@@ -0,0 +1,130 @@
+/* *****************************************************************************
+ *  Name: Yun Zhu
+ *  Date: August 19, 2024
+ *  Description: Deque of long values with the same API and circular array
+ *               as ResizingArrayDeque, but without boxing; iterate with
+ *               nextLong() on the primitive iterator to avoid boxing there.
+ **************************************************************************** */
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class LongDeque implements Iterable<Long> {
+    private static final int MIN_CAPACITY = 8;
+    private long[] items;
+    private int head; // index of the first item
+    private int size;
+
+    // construct an empty deque
+    public LongDeque() {
+        items = new long[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return size;
+    }
+
+    // copy the items, in order, to the front of a new array of the given capacity
+    private void resize(int capacity) {
+        long[] temp = new long[capacity];
+        int mask = items.length - 1;
+        for (int i = 0; i < size; i++) {
+            temp[i] = items[(head + i) & mask];
+        }
+        items = temp;
+        head = 0;
+    }
+
+    // add the item to the front
+    public void addFirst(long item) {
+        if (size == items.length) resize(2 * items.length);
+        head = (head - 1) & (items.length - 1);
+        items[head] = item;
+        size++;
+    }
+
+    // add the item to the back
+    public void addLast(long item) {
+        if (size == items.length) resize(2 * items.length);
+        items[(head + size) & (items.length - 1)] = item;
+        size++;
+    }
+
+    // remove and return the item from the front
+    public long removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty.");
+        long item = items[head];
+        head = (head + 1) & (items.length - 1);
+        size--;
+        shrink();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public long removeLast() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty.");
+        int last = (head + size - 1) & (items.length - 1);
+        long item = items[last];
+        size--;
+        shrink();
+        return item;
+    }
+
+    // halve the array when it is one-quarter full
+    private void shrink() {
+        if (items.length > MIN_CAPACITY && size == items.length / 4) resize(items.length / 2);
+    }
+
+    // return an iterator over items in order from front to back
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongDequeIterator();
+    }
+
+    private class LongDequeIterator implements PrimitiveIterator.OfLong {
+        private int count = 0;
+
+        @Override
+        public boolean hasNext() {
+            return count < size;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return items[(head + count++) & (items.length - 1)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        LongDeque deque = new LongDeque();
+        System.out.println("Is deque empty? " + deque.isEmpty());
+        deque.addFirst(1);
+        deque.addLast(2);
+        deque.addFirst(0);
+        deque.addLast(3);
+        deque.addLast(4);
+        System.out.println("Size of deque: " + deque.size());
+        System.out.println("Removing first: " + deque.removeFirst());
+        System.out.println("Removing last: " + deque.removeLast());
+        System.out.println("Size of deque after removals: " + deque.size());
+
+        for (PrimitiveIterator.OfLong it = deque.iterator(); it.hasNext(); ) {
+            long item = it.nextLong();
+            System.out.println("Item in deque: " + item);
+        }
+    }
+}
@@ -1,14 +1,188 @@
 /* *****************************************************************************
  *  Name: Yun Zhu
  *  Date: August 19, 2024
- *  Description:
+ *  Description: Prints k strings chosen uniformly at random from the input.
+ *               java Permutation k             reads standard input into a
+ *                                              RandomizedQueue
+ *               java Permutation k -reservoir  samples standard input with a
+ *                                              Reservoir, in O(k) memory
+ *               java Permutation k file threads
+ *                                              splits the file into one chunk
+ *                                              per thread, samples each with
+ *                                              its own Reservoir and merges
+ *                                              the samples
+ *               In the file mode strings are separated by ASCII whitespace
+ *               and decoded as UTF-8; a chunk boundary moves forward to the
+ *               end of the string it falls in, so each string is read by
+ *               exactly one thread.
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Permutation {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // sample k strings from standard input in O(k) memory
+    private static List<String> sampleStdIn(int k) {
+        Reservoir<String> reservoir = new Reservoir<>(k);
+        while (!StdIn.isEmpty()) {
+            reservoir.offer(StdIn.readString());
+        }
+        return reservoir.items();
+    }
+
+    // sample k strings from the file, reading one chunk on each of threads threads
+    private static List<String> sampleFile(Path file, int k, int threads, long seed) {
+        if (threads <= 0) throw new IllegalArgumentException("Threads must be positive.");
+        SplittableRandom random = new SplittableRandom(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            List<Future<Reservoir<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long start = length * t / threads;
+                long end = length * (t + 1) / threads;
+                Reservoir<String> reservoir = new Reservoir<>(k, random.nextLong());
+                futures.add(pool.submit(() -> sampleChunk(channel, start, end, reservoir)));
+            }
+            List<Reservoir<String>> reservoirs = new ArrayList<>();
+            for (Future<Reservoir<String>> future : futures) reservoirs.add(future.get());
+            return Reservoir.merge(reservoirs, random.nextLong());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw (UncheckedIOException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    // sequential reader of a file from a given position, one buffer at a time
+    private static final class ChunkReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long bufferStart;  // file position of the first byte in the buffer
+        private int index;
+        private int limit;
+
+        ChunkReader(FileChannel channel, long position) {
+            this.channel = channel;
+            this.bufferStart = position;
+        }
+
+        // file position of the next byte
+        long position() {
+            return bufferStart + index;
+        }
+
+        // the next byte, or -1 at the end of the file
+        int next() throws IOException {
+            if (index == limit) {
+                // move past the consumed bytes once; at the end of the file the buffer
+                // stays empty, so position() stays at the end however often this is called
+                bufferStart += limit;
+                index = 0;
+                limit = 0;
+                buffer.clear();
+                int read = channel.read(buffer, bufferStart);
+                if (read <= 0) return -1;
+                limit = read;
+            }
+            return buffer.get(index++) & 0xff;
+        }
+    }
+
+    // offer the reservoir every string that starts in [start, end) of the file,
+    // reading the last one up to its end; only strings that enter the sample are
+    // decoded
+    private static Reservoir<String> sampleChunk(FileChannel channel, long start, long end,
+                                                 Reservoir<String> reservoir) {
+        byte[] token = new byte[64];
+        try {
+            ChunkReader in = new ChunkReader(channel, start > 0 ? start - 1 : start);
+            int b;
+            // a string that starts before start belongs to the previous chunk
+            if (start > 0 && !isWhitespace(in.next())) {
+                do {
+                    b = in.next();
+                } while (b >= 0 && !isWhitespace(b));
+            }
+            while (true) {
+                do {
+                    if (in.position() >= end) return reservoir;
+                    b = in.next();
+                } while (b >= 0 && isWhitespace(b));
+                if (b < 0) return reservoir;
+                if (reservoir.acceptsNext()) {
+                    int length = 0;
+                    do {
+                        if (length == token.length) token = Arrays.copyOf(token, 2 * length);
+                        token[length++] = (byte) b;
+                        b = in.next();
+                    } while (b >= 0 && !isWhitespace(b));
+                    reservoir.offer(new String(token, 0, length, StandardCharsets.UTF_8));
+                }
+                else {
+                    do {
+                        b = in.next();
+                    } while (b >= 0 && !isWhitespace(b));
+                    reservoir.skip();
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0B;
+    }
+
     public static void main(String[] args) {
         int k = Integer.parseInt(args[0]);
+        if (args.length >= 3) {
+            int threads = Integer.parseInt(args[2]);
+            long seed = StdRandom.uniformLong(Long.MAX_VALUE);
+            for (String item : sampleFile(Paths.get(args[1]), k, threads, seed)) {
+                System.out.println(item);
+            }
+            return;
+        }
+        if (args.length >= 2 && args[1].equals("-reservoir")) {
+            for (String item : sampleStdIn(k)) {
+                System.out.println(item);
+            }
+            return;
+        }
+
         RandomizedQueue<String> rq = new RandomizedQueue<>();
 
         while (!StdIn.isEmpty()) {
@@ -0,0 +1,231 @@
+/* *****************************************************************************
+ *  Compilation:  javac QueueBenchmark.java
+ *  Execution:    java QueueBenchmark deque n
+ *                java QueueBenchmark primitive n
+ *                java QueueBenchmark steal n [maxThreads]
+ *                java QueueBenchmark randomized n [maxThreads]
+ *  Dependencies: Deque.java ResizingArrayDeque.java IntDeque.java
+ *                WorkStealingDeque.java RandomizedQueue.java
+ *                ConcurrentRandomizedQueue.java Stopwatch.java
+ *
+ *  deque: n addLast() calls, an iteration, n removeFirst() calls, then
+ *         n addFirst() and n removeLast() calls, on the linked Deque and
+ *         the array-backed ResizingArrayDeque.
+ *  primitive: n addLast() calls, an iteration and n removeFirst() calls of
+ *         int ids (mostly outside the Integer cache) on Deque<Integer>,
+ *         ResizingArrayDeque<Integer> and IntDeque.
+ *  steal: a fork-join style computation on one WorkStealingDeque per
+ *         thread, for 1, 2, 4, ... up to maxThreads (default 64) threads.
+ *         A task of size s > 1 pushes a task of size s - s/2 and goes on
+ *         with s/2; the root task of size n starts on thread 0 and idle
+ *         threads steal. Each of the about 2n operations is a push and a
+ *         pop or steal.
+ *  randomized: n enqueue(), sample() and dequeue() triples, spread over
+ *         1, 2, 4, ... up to maxThreads (default 64) threads, on a queue
+ *         that starts with PREFILL items; ConcurrentRandomizedQueue against
+ *         a RandomizedQueue that every call locks.
+ *
+ *  Each case is run once to warm up the JIT and then ROUNDS times; the
+ *  fastest round is reported.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+public class QueueBenchmark {
+    private static final int ROUNDS = 5;
+    // items in a randomized queue before the timed operations start
+    private static final int PREFILL = 1 << 16;
+
+    // keeps the JIT from discarding the work of a round
+    private static long checksum;
+
+    // time the same operations on the linked and the array-backed deque
+    private static void deque(int n) {
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) values[i] = i;
+        time("Deque", 5L * n, () -> {
+            Deque<Integer> deque = new Deque<>();
+            for (int i = 0; i < n; i++) deque.addLast(values[i]);
+            for (int value : deque) checksum += value;
+            while (!deque.isEmpty()) deque.removeFirst();
+            for (int i = 0; i < n; i++) deque.addFirst(values[i]);
+            while (!deque.isEmpty()) deque.removeLast();
+        });
+        time("ResizingArrayDeque", 5L * n, () -> {
+            ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+            for (int i = 0; i < n; i++) deque.addLast(values[i]);
+            for (int value : deque) checksum += value;
+            while (!deque.isEmpty()) deque.removeFirst();
+            for (int i = 0; i < n; i++) deque.addFirst(values[i]);
+            while (!deque.isEmpty()) deque.removeLast();
+        });
+    }
+
+    // time moving int ids through boxed and primitive deques
+    private static void primitive(int n) {
+        time("Deque<Integer>", 3L * n, () -> {
+            Deque<Integer> deque = new Deque<>();
+            for (int i = 0; i < n; i++) deque.addLast(i);
+            for (int value : deque) checksum += value;
+            while (!deque.isEmpty()) checksum += deque.removeFirst();
+        });
+        time("ResizingArrayDeque<Integer>", 3L * n, () -> {
+            ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+            for (int i = 0; i < n; i++) deque.addLast(i);
+            for (int value : deque) checksum += value;
+            while (!deque.isEmpty()) checksum += deque.removeFirst();
+        });
+        time("IntDeque", 3L * n, () -> {
+            IntDeque deque = new IntDeque();
+            for (int i = 0; i < n; i++) deque.addLast(i);
+            for (PrimitiveIterator.OfInt it = deque.iterator(); it.hasNext(); ) {
+                checksum += it.nextInt();
+            }
+            while (!deque.isEmpty()) checksum += deque.removeFirst();
+        });
+    }
+
+    // time a fork-join style computation of n leaf tasks for 1, 2, 4, ... threads
+    private static void steal(int n, int maxThreads) {
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            int count = threads;
+            time("WorkStealingDeque x" + threads, 2L * n, () -> forkJoin(n, count));
+        }
+    }
+
+    // split the root task of size n down to leaves on threads work-stealing threads
+    private static void forkJoin(int n, int threads) {
+        List<WorkStealingDeque<Integer>> deques = new ArrayList<>();
+        for (int w = 0; w < threads; w++) deques.add(new WorkStealingDeque<>());
+        AtomicLong leaves = new AtomicLong();
+        runThreads(threads, id -> {
+            WorkStealingDeque<Integer> own = deques.get(id);
+            if (id == 0) own.push(n);
+            long local = 0;
+            while (true) {
+                Integer task = own.pop();
+                for (int i = 1; task == null && i < threads; i++) {
+                    task = deques.get((id + i) % threads).steal();
+                }
+                if (task == null) {
+                    // publish the leaves done so far only when idle
+                    if (local > 0) leaves.addAndGet(local);
+                    local = 0;
+                    if (leaves.get() == n) return;
+                    Thread.yield();
+                    continue;
+                }
+                int size = task;
+                while (size > 1) {
+                    own.push(size - size / 2);
+                    size /= 2;
+                }
+                local++;
+            }
+        });
+        checksum += leaves.get();
+    }
+
+    // time n enqueue(), sample() and dequeue() triples spread over 1, 2, 4, ... threads
+    // on ConcurrentRandomizedQueue and on a RandomizedQueue behind one lock
+    private static void randomized(int n, int maxThreads) {
+        Integer[] values = new Integer[n + PREFILL];
+        for (int i = 0; i < values.length; i++) values[i] = i;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            int count = threads;
+            time("ConcurrentRandomizedQueue x" + threads, 3L * n, () -> {
+                ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<>();
+                for (int i = 0; i < PREFILL; i++) queue.enqueue(values[n + i]);
+                AtomicLong sum = new AtomicLong();
+                runThreads(count, id -> {
+                    long local = 0;
+                    for (int i = id; i < n; i += count) {
+                        queue.enqueue(values[i]);
+                        local += queue.sample();
+                        local += queue.dequeue();
+                    }
+                    sum.addAndGet(local);
+                });
+                checksum += sum.get();
+            });
+            time("locked RandomizedQueue x" + threads, 3L * n, () -> {
+                RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+                for (int i = 0; i < PREFILL; i++) queue.enqueue(values[n + i]);
+                AtomicLong sum = new AtomicLong();
+                runThreads(count, id -> {
+                    long local = 0;
+                    for (int i = id; i < n; i += count) {
+                        synchronized (queue) {
+                            queue.enqueue(values[i]);
+                        }
+                        synchronized (queue) {
+                            local += queue.sample();
+                        }
+                        synchronized (queue) {
+                            local += queue.dequeue();
+                        }
+                    }
+                    sum.addAndGet(local);
+                });
+                checksum += sum.get();
+            });
+        }
+    }
+
+    // run body(0), ..., body(threads - 1) on threads new threads and wait for them
+    private static void runThreads(int threads, IntConsumer body) {
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            int id = w;
+            workers[w] = new Thread(() -> body.accept(id));
+            workers[w].start();
+        }
+        try {
+            for (Thread worker : workers) worker.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // run body once to warm up, then ROUNDS times, and print the fastest round
+    private static void time(String name, long operations, Runnable body) {
+        body.run();
+        double best = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < ROUNDS; round++) {
+            Stopwatch timer = new Stopwatch();
+            body.run();
+            best = Math.min(best, timer.elapsedTime());
+        }
+        StdOut.printf("%-32s %8.3f s %14.1f ops/s%n", name, best, operations / best);
+    }
+
+    public static void main(String[] args) {
+        String mode = args[0];
+        int n = Integer.parseInt(args[1]);
+        if (mode.equals("deque")) {
+            deque(n);
+        }
+        else if (mode.equals("primitive")) {
+            primitive(n);
+        }
+        else if (mode.equals("randomized")) {
+            randomized(n, args.length >= 3 ? Integer.parseInt(args[2]) : 64);
+        }
+        else if (mode.equals("steal")) {
+            steal(n, args.length >= 3 ? Integer.parseInt(args[2]) : 64);
+        }
+        else {
+            throw new IllegalArgumentException("Unknown benchmark: " + mode);
+        }
+        if (checksum == 42) StdOut.println();
+    }
+}
@@ -6,7 +6,10 @@
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
@@ -63,6 +66,38 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return queue[randomIndex];
     }
 
+    // remove and return k random items, as k calls of dequeue() would
+    public List<Item> dequeue(int k) {
+        if (k < 0) throw new IllegalArgumentException("K cannot be negative.");
+        if (k > size) throw new NoSuchElementException("Queue has fewer than k items.");
+        List<Item> items = new ArrayList<>(k);
+        // apply dequeue()'s shrink rule to the capacity after every removal, but copy
+        // the array only once, at the end
+        int capacity = queue.length;
+        for (int i = 0; i < k; i++) {
+            int randomIndex = StdRandom.uniformInt(size);
+            items.add(queue[randomIndex]);
+            queue[randomIndex] = queue[size - 1];
+            queue[size - 1] = null;
+            size--;
+            if (size > 0 && size == capacity / 4) capacity /= 2;
+        }
+        if (capacity != queue.length) resize(capacity);
+        return items;
+    }
+
+    // return k random items (but do not remove them), as k calls of sample() would;
+    // the same item may be returned more than once
+    public List<Item> sample(int k) {
+        if (k < 0) throw new IllegalArgumentException("K cannot be negative.");
+        if (k > 0 && isEmpty()) throw new NoSuchElementException("Queue is empty.");
+        List<Item> items = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            items.add(queue[StdRandom.uniformInt(size)]);
+        }
+        return items;
+    }
+
     // return an independent iterator over items in random order
     public Iterator<Item> iterator() {
         return new RandomizedQueueIterator();
@@ -98,6 +133,73 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
     }
 
+    // return an iterator over items in a pseudo-random order that uses O(1) extra
+    // memory and time to start; the queue must not change while it is in use
+    public Iterator<Item> lazyIterator() {
+        return new LazyRandomizedQueueIterator();
+    }
+
+    // visits index permute(0), permute(1), ... of the backing array, walking the whole
+    // padded domain in order and filtering out the values of at least size. permute is
+    // a four-round Feistel network on 2h-bit values with random round keys, a bijection
+    // on [0, 4^h) for the smallest h with 4^h >= size, so fewer than four values of the
+    // domain are tried per item on average.
+    // The order comes from a keyed family of permutations, not from all size!
+    // orders with equal probability, so it is pseudo-random only
+    private class LazyRandomizedQueueIterator implements Iterator<Item> {
+        private static final int ROUNDS = 4;
+        private final int expectedSize = size;
+        private final long[] keys = new long[ROUNDS];
+        private final int halfBits;
+        private final long halfMask;
+        private long next;
+        private int count;
+
+        public LazyRandomizedQueueIterator() {
+            int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, size - 1));
+            halfBits = Math.max(1, (bits + 1) / 2);
+            halfMask = (1L << halfBits) - 1;
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = StdRandom.uniformLong(Long.MAX_VALUE);
+            }
+            next = 0;
+            count = 0;
+        }
+
+        private long permute(long x) {
+            long left = x >>> halfBits;
+            long right = x & halfMask;
+            for (int i = 0; i < ROUNDS; i++) {
+                long z = (right ^ keys[i]) * 0x9E3779B97F4A7C15L;
+                z ^= z >>> 29;
+                long swap = right;
+                right = (left ^ z) & halfMask;
+                left = swap;
+            }
+            return (left << halfBits) | right;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return count < expectedSize;
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (size != expectedSize) throw new ConcurrentModificationException();
+            long index = permute(next++);
+            while (index >= expectedSize) index = permute(next++);
+            count++;
+            return queue[(int) index];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     // unit testing (required)
     public static void main(String[] args) {
         RandomizedQueue<Integer> rq = new RandomizedQueue<>();
@@ -116,5 +218,13 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         for (int item : rq) {
             System.out.println("Iterating item: " + item);
         }
+
+        for (Iterator<Integer> it = rq.lazyIterator(); it.hasNext(); ) {
+            System.out.println("Lazily iterating item: " + it.next());
+        }
+
+        System.out.println("Sampled items: " + rq.sample(3));
+        System.out.println("Dequeued items: " + rq.dequeue(2));
+        System.out.println("Queue size after dequeue: " + rq.size());
     }
 }
@@ -0,0 +1,171 @@
+/* *****************************************************************************
+ *  Name: Yun Zhu
+ *  Date: August 19, 2024
+ *  Description: Uniform random sample of k items from a stream of unknown
+ *               length, in O(k) memory (Li's Algorithm L). After the first
+ *               k items, the number of items to skip before the next one
+ *               that enters the sample is drawn directly from its
+ *               geometric-like distribution, so a stream of n items takes
+ *               O(k (1 + log(n/k))) random numbers instead of n. Callers
+ *               that can skip an item more cheaply than build it ask
+ *               acceptsNext() first. Reservoirs filled from disjoint parts
+ *               of a stream can be merged into a sample of the whole.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class Reservoir<Item> {
+    private final Item[] sample;
+    private final SplittableRandom random;
+    private long count;  // number of items seen
+    private long next;   // 1-based number of the next item that enters the sample
+    private double w;    // Algorithm L's running maximum of k uniform keys
+
+    // construct an empty reservoir for a sample of k items
+    public Reservoir(int k) {
+        this(k, StdRandom.uniformLong(Long.MAX_VALUE));
+    }
+
+    // construct an empty reservoir for a sample of k items, with a fixed seed
+    public Reservoir(int k, long seed) {
+        if (k < 0) throw new IllegalArgumentException("K cannot be negative.");
+        this.sample = (Item[]) new Object[k];
+        this.random = new SplittableRandom(seed);
+        this.count = 0;
+        this.next = k > 0 ? 1 : Long.MAX_VALUE;
+    }
+
+    // will the next item offered enter the sample?
+    public boolean acceptsNext() {
+        return count + 1 == next;
+    }
+
+    // count the next item of the stream without looking at it; only allowed
+    // when it would not enter the sample
+    public void skip() {
+        if (acceptsNext()) throw new IllegalStateException("The next item enters the sample.");
+        count++;
+    }
+
+    // offer the next item of the stream
+    public void offer(Item item) {
+        if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+        count++;
+        if (count != next) return;
+        int k = sample.length;
+        if (count <= k) {
+            sample[(int) count - 1] = item;
+            if (count == k) {
+                w = Math.exp(Math.log(uniform()) / k);
+                advance();
+            }
+            else {
+                next++;
+            }
+        }
+        else {
+            sample[random.nextInt(k)] = item;
+            w *= Math.exp(Math.log(uniform()) / k);
+            advance();
+        }
+    }
+
+    // skip a random number of items, geometric with success probability w
+    private void advance() {
+        double skip = Math.floor(Math.log(uniform()) / Math.log1p(-w));
+        next = skip < Long.MAX_VALUE - count - 1 ? count + (long) skip + 1 : Long.MAX_VALUE;
+    }
+
+    // uniform in (0, 1], so its logarithm is finite
+    private double uniform() {
+        return 1.0 - random.nextDouble();
+    }
+
+    // return the number of items seen
+    public long count() {
+        return count;
+    }
+
+    // return the number of items in the sample
+    public int size() {
+        return (int) Math.min(count, sample.length);
+    }
+
+    // return the sample in uniformly random order
+    public List<Item> items() {
+        Item[] copy = Arrays.copyOf(sample, size());
+        shuffle(copy, random);
+        return new ArrayList<>(Arrays.asList(copy));
+    }
+
+    // return a uniform random sample of min(k, total count) items from the union of
+    // the streams the reservoirs saw, in uniformly random order. Each item is drawn
+    // from the reservoir of a stream chosen with probability proportional to the
+    // number of its items not yet drawn; its sample, taken in random order, is a
+    // uniform ordered sample of those items
+    public static <Item> List<Item> merge(List<Reservoir<Item>> reservoirs, long seed) {
+        if (reservoirs == null || reservoirs.isEmpty())
+            throw new IllegalArgumentException("Reservoirs cannot be empty.");
+        int k = reservoirs.get(0).sample.length;
+        SplittableRandom random = new SplittableRandom(seed);
+        Item[][] samples = (Item[][]) new Object[reservoirs.size()][];
+        long[] remaining = new long[reservoirs.size()];
+        long total = 0;
+        for (int i = 0; i < samples.length; i++) {
+            Reservoir<Item> reservoir = reservoirs.get(i);
+            if (reservoir.sample.length != k)
+                throw new IllegalArgumentException("Reservoirs must have the same k.");
+            samples[i] = Arrays.copyOf(reservoir.sample, reservoir.size());
+            shuffle(samples[i], random);
+            remaining[i] = reservoir.count;
+            total += reservoir.count;
+        }
+        int[] drawn = new int[samples.length];
+        List<Item> merged = new ArrayList<>();
+        for (long left = total; merged.size() < k && left > 0; left--) {
+            long r = random.nextLong(left);
+            int i = 0;
+            while (r >= remaining[i]) r -= remaining[i++];
+            merged.add(samples[i][drawn[i]++]);
+            remaining[i]--;
+        }
+        return merged;
+    }
+
+    private static <Item> void shuffle(Item[] a, SplittableRandom random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Item swap = a[i];
+            a[i] = a[j];
+            a[j] = swap;
+        }
+    }
+
+    // unit testing: how often each of 10 items is in a sample of 3, with one
+    // reservoir and with the stream split over two merged reservoirs
+    public static void main(String[] args) {
+        int trials = args.length >= 1 ? Integer.parseInt(args[0]) : 200_000;
+        int[] single = new int[10];
+        int[] merged = new int[10];
+        for (int t = 0; t < trials; t++) {
+            Reservoir<Integer> reservoir = new Reservoir<>(3, 2L * t);
+            for (int i = 0; i < 10; i++) reservoir.offer(i);
+            for (int item : reservoir.items()) single[item]++;
+
+            Reservoir<Integer> left = new Reservoir<>(3, 2L * t + 1);
+            Reservoir<Integer> right = new Reservoir<>(3, ~(2L * t));
+            for (int i = 0; i < 2; i++) left.offer(i);
+            for (int i = 2; i < 10; i++) right.offer(i);
+            for (int item : merge(Arrays.asList(left, right), t)) merged[item]++;
+        }
+        for (int i = 0; i < 10; i++) {
+            System.out.printf("item %d: %.4f in one reservoir, %.4f merged (expected 0.3)%n",
+                              i, (double) single[i] / trials, (double) merged[i] / trials);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/* *****************************************************************************
+ *  Name: Yun Zhu
+ *  Date: August 19, 2024
+ *  Description: Same API as Deque, backed by a circular array instead of
+ *               linked nodes. The capacity is a power of two, doubled when
+ *               the array is full and halved when it is one-quarter full,
+ *               so no object is allocated per item.
+ **************************************************************************** */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class ResizingArrayDeque<Item> implements Iterable<Item> {
+    private static final int MIN_CAPACITY = 8;
+    private Item[] items;
+    private int head; // index of the first item
+    private int size;
+
+    // construct an empty deque
+    public ResizingArrayDeque() {
+        items = (Item[]) new Object[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    // is the deque empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the deque
+    public int size() {
+        return size;
+    }
+
+    // copy the items, in order, to the front of a new array of the given capacity
+    private void resize(int capacity) {
+        Item[] temp = (Item[]) new Object[capacity];
+        int mask = items.length - 1;
+        for (int i = 0; i < size; i++) {
+            temp[i] = items[(head + i) & mask];
+        }
+        items = temp;
+        head = 0;
+    }
+
+    // add the item to the front
+    public void addFirst(Item item) {
+        if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+        if (size == items.length) resize(2 * items.length);
+        head = (head - 1) & (items.length - 1);
+        items[head] = item;
+        size++;
+    }
+
+    // add the item to the back
+    public void addLast(Item item) {
+        if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+        if (size == items.length) resize(2 * items.length);
+        items[(head + size) & (items.length - 1)] = item;
+        size++;
+    }
+
+    // add the items to the front, in the order of the collection
+    public void addAllFirst(Collection<? extends Item> items) {
+        int count = reserve(items);
+        int mask = this.items.length - 1;
+        int start = (head - count) & mask;
+        fill(items, start);
+        head = start;
+        size += count;
+    }
+
+    // add the items to the back, in the order of the collection
+    public void addAllLast(Collection<? extends Item> items) {
+        int count = reserve(items);
+        fill(items, head + size);
+        size += count;
+    }
+
+    // check and count the items, then grow the array at most once so that they fit;
+    // return their number. A null item is rejected before anything changes, as in
+    // addFirst and addLast
+    private int reserve(Collection<? extends Item> items) {
+        if (items == null) throw new IllegalArgumentException("Collection cannot be null.");
+        long count = 0;
+        for (Item item : items) {
+            if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+            count++;
+        }
+        if (size + count > 1 << 30) throw new IllegalArgumentException("Too many items.");
+        int needed = size + (int) count;
+        int capacity = this.items.length;
+        while (capacity < needed) capacity *= 2;
+        if (capacity != this.items.length) resize(capacity);
+        return (int) count;
+    }
+
+    // copy the items, already checked by reserve, into consecutive slots from start on
+    private void fill(Collection<? extends Item> items, int start) {
+        int mask = this.items.length - 1;
+        int i = 0;
+        for (Item item : items) {
+            this.items[(start + i++) & mask] = item;
+        }
+    }
+
+    // remove up to max items from the front and add them, in order, to the collection;
+    // return the number of items moved
+    public int drainTo(Collection<? super Item> items, int max) {
+        if (items == null) throw new IllegalArgumentException("Collection cannot be null.");
+        if (max < 0) throw new IllegalArgumentException("Max cannot be negative.");
+        int count = Math.min(max, size);
+        int mask = this.items.length - 1;
+        for (int i = 0; i < count; i++) {
+            items.add(this.items[head]);
+            this.items[head] = null;
+            head = (head + 1) & mask;
+        }
+        size -= count;
+        // shrink once, to the capacity that removing the items one by one would leave
+        int capacity = this.items.length;
+        while (capacity > MIN_CAPACITY && size <= capacity / 4) capacity /= 2;
+        if (capacity != this.items.length) resize(capacity);
+        return count;
+    }
+
+    // remove and return the item from the front
+    public Item removeFirst() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty.");
+        Item item = items[head];
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        size--;
+        shrink();
+        return item;
+    }
+
+    // remove and return the item from the back
+    public Item removeLast() {
+        if (isEmpty()) throw new NoSuchElementException("Deque is empty.");
+        int last = (head + size - 1) & (items.length - 1);
+        Item item = items[last];
+        items[last] = null;
+        size--;
+        shrink();
+        return item;
+    }
+
+    // halve the array when it is one-quarter full
+    private void shrink() {
+        if (items.length > MIN_CAPACITY && size == items.length / 4) resize(items.length / 2);
+    }
+
+    // return an iterator over items in order from front to back
+    public Iterator<Item> iterator() {
+        return new ResizingArrayDequeIterator();
+    }
+
+    private class ResizingArrayDequeIterator implements Iterator<Item> {
+        private int count = 0;
+
+        @Override
+        public boolean hasNext() {
+            return count < size;
+        }
+
+        @Override
+        public Item next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return items[(head + count++) & (items.length - 1)];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        ResizingArrayDeque<Integer> deque = new ResizingArrayDeque<>();
+        System.out.println("Is deque empty? " + deque.isEmpty());
+        deque.addFirst(1);
+        deque.addLast(2);
+        deque.addFirst(0);
+        deque.addLast(3);
+        deque.addLast(4);
+        System.out.println("Size of deque: " + deque.size());
+        System.out.println("Removing first: " + deque.removeFirst());
+        System.out.println("Removing last: " + deque.removeLast());
+        System.out.println("Size of deque after removals: " + deque.size());
+
+        for (int item : deque) {
+            System.out.println("Item in deque: " + item);
+        }
+
+        deque.addAllFirst(Arrays.asList(-2, -1));
+        deque.addAllLast(Arrays.asList(4, 5, 6));
+        List<Integer> drained = new ArrayList<>();
+        System.out.println("Drained " + deque.drainTo(drained, 4) + " items: " + drained);
+        System.out.println("Size of deque after drain: " + deque.size());
+    }
+}
@@ -0,0 +1,251 @@
+/* *****************************************************************************
+ *  Name: Yun Zhu
+ *  Date: August 19, 2024
+ *  Description: Randomized queue where each item is chosen with probability
+ *               proportional to its weight. As in RandomizedQueue, the items
+ *               are kept compact at the front of a resizing array, and
+ *               dequeue moves the last item into the hole. The weights sit
+ *               in a Fenwick tree over the array positions, so sample,
+ *               dequeue, remove and setWeight take O(log n) time. Because
+ *               items move when others are removed, enqueue returns a
+ *               stable int handle; handles of removed items are reused.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class WeightedRandomizedQueue<Item> {
+    private static final int MIN_CAPACITY = 8;
+    private Item[] items;
+    private double[] weights;      // weights[i]: weight of items[i]
+    private double[] tree;         // Fenwick tree of weights, 1-based, length capacity + 1
+    private int[] positionHandle;  // positionHandle[i]: handle of items[i]
+    private int[] handlePosition;  // handlePosition[h]: position of handle h, or -1 if free
+    private int[] freeHandles;     // stack of free handles
+    private int freeCount;
+    private int size;
+    private int updates;           // tree updates since the tree was last rebuilt
+
+    // construct an empty weighted randomized queue
+    public WeightedRandomizedQueue() {
+        items = (Item[]) new Object[MIN_CAPACITY];
+        weights = new double[MIN_CAPACITY];
+        tree = new double[MIN_CAPACITY + 1];
+        positionHandle = new int[MIN_CAPACITY];
+        handlePosition = new int[0];
+        freeHandles = new int[0];
+        size = 0;
+    }
+
+    // is the queue empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // return the number of items on the queue
+    public int size() {
+        return size;
+    }
+
+    // return the sum of the weights of all items
+    public double totalWeight() {
+        return prefixSum(size);
+    }
+
+    // add the item with the given positive weight and return its handle
+    public int enqueue(Item item, double weight) {
+        if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+        validateWeight(weight);
+        if (size == items.length) resize(2 * items.length);
+        int handle = newHandle();
+        items[size] = item;
+        weights[size] = weight;
+        positionHandle[size] = handle;
+        handlePosition[handle] = size;
+        add(size, weight);
+        size++;
+        rebuildIfStale();
+        return handle;
+    }
+
+    // remove and return a random item, chosen with probability proportional to its weight
+    public Item dequeue() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty.");
+        return removeAt(randomPosition());
+    }
+
+    // return a random item, chosen with probability proportional to its weight
+    // (but do not remove it)
+    public Item sample() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty.");
+        return items[randomPosition()];
+    }
+
+    // remove and return the item with the given handle
+    public Item remove(int handle) {
+        return removeAt(position(handle));
+    }
+
+    // return the weight of the item with the given handle
+    public double weight(int handle) {
+        return weights[position(handle)];
+    }
+
+    // change the weight of the item with the given handle
+    public void setWeight(int handle, double weight) {
+        validateWeight(weight);
+        int position = position(handle);
+        add(position, weight - weights[position]);
+        weights[position] = weight;
+        rebuildIfStale();
+    }
+
+    private static void validateWeight(double weight) {
+        if (!(weight > 0.0 && weight < Double.POSITIVE_INFINITY))
+            throw new IllegalArgumentException("Weight must be positive and finite.");
+    }
+
+    private int position(int handle) {
+        if (handle < 0 || handle >= handlePosition.length || handlePosition[handle] < 0)
+            throw new IllegalArgumentException("No item with handle " + handle + ".");
+        return handlePosition[handle];
+    }
+
+    // a free handle, growing the handle arrays if there is none
+    private int newHandle() {
+        if (freeCount > 0) return freeHandles[--freeCount];
+        int handle = handlePosition.length;
+        int[] temp = new int[Math.max(MIN_CAPACITY, 2 * handle)];
+        System.arraycopy(handlePosition, 0, temp, 0, handle);
+        handlePosition = temp;
+        freeHandles = new int[temp.length];
+        for (int h = temp.length - 1; h > handle; h--) {
+            handlePosition[h] = -1;
+            freeHandles[freeCount++] = h;
+        }
+        return handle;
+    }
+
+    // move the last item into position, free the removed item's handle and shrink
+    // the arrays when they are one-quarter full
+    private Item removeAt(int position) {
+        Item item = items[position];
+        int handle = positionHandle[position];
+        int last = size - 1;
+        add(position, weights[last] - weights[position]);
+        add(last, -weights[last]);
+        items[position] = items[last];
+        weights[position] = weights[last];
+        positionHandle[position] = positionHandle[last];
+        handlePosition[positionHandle[position]] = position;
+        items[last] = null;
+        weights[last] = 0.0;
+        handlePosition[handle] = -1;
+        freeHandles[freeCount++] = handle;
+        size--;
+        if (items.length > MIN_CAPACITY && size == items.length / 4) resize(items.length / 2);
+        else rebuildIfStale();
+        return item;
+    }
+
+    private void resize(int capacity) {
+        Item[] temp = (Item[]) new Object[capacity];
+        double[] tempWeights = new double[capacity];
+        int[] tempHandles = new int[capacity];
+        System.arraycopy(items, 0, temp, 0, size);
+        System.arraycopy(weights, 0, tempWeights, 0, size);
+        System.arraycopy(positionHandle, 0, tempHandles, 0, size);
+        items = temp;
+        weights = tempWeights;
+        positionHandle = tempHandles;
+        tree = new double[capacity + 1];
+        rebuild();
+    }
+
+    // rebuild the tree from the weights in linear time, which also discards the
+    // rounding errors that incremental updates accumulate
+    private void rebuild() {
+        Arrays.fill(tree, 0.0);
+        System.arraycopy(weights, 0, tree, 1, size);
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+        updates = 0;
+    }
+
+    // rebuild the tree after 2 * capacity updates, which keeps rebuilding O(1)
+    // amortized time per update
+    private void rebuildIfStale() {
+        if (updates > 2 * items.length) rebuild();
+    }
+
+    // add delta to the weight at position
+    private void add(int position, double delta) {
+        updates++;
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // sum of the weights at positions 0 to n - 1
+    private double prefixSum(int n) {
+        double sum = 0.0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // position of the item whose weight interval contains a uniform point in
+    // [0, total weight), found by descending the tree
+    private int randomPosition() {
+        double target = StdRandom.uniformDouble() * prefixSum(size);
+        int position = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= target) {
+                position = next;
+                target -= tree[next];
+            }
+        }
+        // rounding can push the point past the last item
+        return Math.min(position, size - 1);
+    }
+
+    // unit testing: sampling frequencies must follow the weights
+    public static void main(String[] args) {
+        int trials = args.length >= 1 ? Integer.parseInt(args[0]) : 1_000_000;
+        WeightedRandomizedQueue<String> queue = new WeightedRandomizedQueue<>();
+        String[] names = { "A", "B", "C", "D" };
+        int[] handles = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            handles[i] = queue.enqueue(names[i], i + 1);
+        }
+        System.out.println("Total weight: " + queue.totalWeight());
+        printFrequencies(queue, names, trials);
+
+        queue.setWeight(handles[0], 6.0);
+        System.out.println("After setting the weight of A to 6:");
+        printFrequencies(queue, names, trials);
+
+        System.out.println("Removed by handle: " + queue.remove(handles[2]));
+        while (!queue.isEmpty()) {
+            System.out.println("Dequeued item: " + queue.dequeue());
+        }
+    }
+
+    private static void printFrequencies(WeightedRandomizedQueue<String> queue,
+                                         String[] names, int trials) {
+        int[] count = new int[names.length];
+        for (int t = 0; t < trials; t++) {
+            count[queue.sample().charAt(0) - 'A']++;
+        }
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%s sampled %.4f of the time%n", names[i],
+                              (double) count[i] / trials);
+        }
+    }
+}
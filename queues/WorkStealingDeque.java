@@ -0,0 +1,187 @@
+/* *****************************************************************************
+ *  Name: Yun Zhu
+ *  Date: August 19, 2024
+ *  Description: Lock-free Chase-Lev work-stealing deque. One owner thread
+ *               pushes and pops items at the bottom (LIFO); any number of
+ *               thief threads steal items from the top (FIFO). The items
+ *               live in a circular power-of-two array indexed by two
+ *               ever-increasing counters, top and bottom; the owner grows
+ *               the array when it is full. Only the removal of the last
+ *               item, which the owner and a thief can race for, and steals
+ *               use compare-and-set on top; push and pop otherwise only
+ *               write bottom. The volatile write of bottom publishes a
+ *               pushed item to thieves, and a thief reads the array only
+ *               after it has read bottom.
+ **************************************************************************** */
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WorkStealingDeque<Item> {
+    private static final int MIN_CAPACITY = 8;
+    private final AtomicLong top = new AtomicLong();  // index of the next item to steal
+    private volatile long bottom;                     // index of the next item to push
+    private volatile Object[] items;
+
+    // construct an empty deque
+    public WorkStealingDeque() {
+        items = new Object[MIN_CAPACITY];
+    }
+
+    // is the deque empty? only a snapshot while other threads use it
+    public boolean isEmpty() {
+        return bottom <= top.get();
+    }
+
+    // return the number of items on the deque; only a snapshot while other threads use it
+    public int size() {
+        long size = bottom - top.get();
+        return size > 0 ? (int) size : 0;
+    }
+
+    // add the item at the bottom; owner thread only
+    public void push(Item item) {
+        if (item == null) throw new IllegalArgumentException("Cannot add null item.");
+        long b = bottom;
+        long t = top.get();
+        Object[] a = items;
+        if (b - t >= a.length) a = grow(a, t, b);
+        a[(int) b & (a.length - 1)] = item;
+        bottom = b + 1;
+    }
+
+    // copy the items between top and bottom into an array twice as large; thieves
+    // that still read the old array find the same items there
+    private Object[] grow(Object[] a, long t, long b) {
+        if (a.length > Integer.MAX_VALUE / 2) throw new IllegalStateException("Deque is full.");
+        Object[] temp = new Object[2 * a.length];
+        for (long i = t; i < b; i++) {
+            temp[(int) i & (temp.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        items = temp;
+        return temp;
+    }
+
+    // remove and return the item at the bottom, or null if the deque is empty;
+    // owner thread only
+    public Item pop() {
+        long b = bottom - 1;
+        Object[] a = items;
+        // the volatile write of bottom is ordered before the read of top, so a
+        // thief that reads top after this point sees the smaller bottom
+        bottom = b;
+        long t = top.get();
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+        int slot = (int) b & (a.length - 1);
+        Item item = (Item) a[slot];
+        if (t == b) {
+            // last item: take it only if no thief has stolen it
+            if (!top.compareAndSet(t, t + 1)) item = null;
+            bottom = b + 1;
+        }
+        // no thief reads a slot at or below bottom any more, so it can be cleared
+        if (item != null) a[slot] = null;
+        return item;
+    }
+
+    // remove and return the item at the top, or null if the deque is empty;
+    // any thread. A failed compare-and-set means another pop or steal took the
+    // item, so retrying keeps the deque lock-free
+    public Item steal() {
+        while (true) {
+            long t = top.get();
+            long b = bottom;
+            if (t >= b) return null;
+            Object[] a = items;
+            Item item = (Item) a[(int) t & (a.length - 1)];
+            if (top.compareAndSet(t, t + 1)) return item;
+        }
+    }
+
+    // linearizability tests: java WorkStealingDeque [thieves] [items] [seed]
+    // a sequential run must agree with ArrayDeque, and in a concurrent run every
+    // pushed item must be taken exactly once, each thief must take items in push
+    // order and the owner must pop each burst in reverse push order
+    public static void main(String[] args) throws InterruptedException {
+        int thieves = args.length >= 1 ? Integer.parseInt(args[0]) : 4;
+        int n = args.length >= 2 ? Integer.parseInt(args[1]) : 1_000_000;
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : System.nanoTime();
+        Random random = new Random(seed);
+
+        // sequential specification: bottom is the last end, top is the first end
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        ArrayDeque<Integer> model = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            int op = random.nextInt(3);
+            if (op == 0 || model.size() < random.nextInt(64)) {
+                deque.push(i);
+                model.addLast(i);
+                continue;
+            }
+            Integer expected = op == 1 ? model.pollLast() : model.pollFirst();
+            Integer actual = op == 1 ? deque.pop() : deque.steal();
+            if (expected == null ? actual != null : !expected.equals(actual))
+                throw new IllegalStateException("Expected " + expected + " but got " + actual);
+            if (deque.size() != model.size()) throw new IllegalStateException("Wrong size");
+        }
+
+        // concurrent run: the owner pushes 0, 1, 2, ... in bursts and pops part of
+        // each burst while the thieves steal
+        WorkStealingDeque<Integer> shared = new WorkStealingDeque<>();
+        byte[] taken = new byte[n];
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread[] workers = new Thread[thieves];
+        for (int w = 0; w < thieves; w++) {
+            workers[w] = new Thread(() -> {
+                int last = -1;
+                while (true) {
+                    boolean finished = done.get();
+                    Integer item = shared.steal();
+                    if (item == null) {
+                        if (finished) return;
+                        continue;
+                    }
+                    if (item <= last) throw new IllegalStateException("Stole out of order");
+                    last = item;
+                    synchronized (taken) {
+                        taken[item]++;
+                    }
+                }
+            });
+            workers[w].setUncaughtExceptionHandler((thread, e) -> failure.set(e));
+            workers[w].start();
+        }
+        int next = 0;
+        while (next < n) {
+            int burst = Math.min(n - next, 1 + random.nextInt(256));
+            for (int i = 0; i < burst; i++) shared.push(next++);
+            int last = Integer.MAX_VALUE;
+            for (int pops = random.nextInt(burst + 1); pops > 0; pops--) {
+                Integer item = shared.pop();
+                if (item == null) break;
+                if (item >= last) throw new IllegalStateException("Popped out of order");
+                last = item;
+                synchronized (taken) {
+                    taken[item]++;
+                }
+            }
+        }
+        done.set(true);
+        for (Thread worker : workers) worker.join();
+        if (failure.get() != null) throw new IllegalStateException(failure.get());
+        for (Integer item = shared.pop(); item != null; item = shared.pop()) taken[item]++;
+        for (int i = 0; i < n; i++) {
+            if (taken[i] != 1)
+                throw new IllegalStateException("Item " + i + " taken " + taken[i] + " times");
+        }
+        System.out.println("WorkStealingDeque passed with " + thieves + " thieves and " + n
+                                   + " items (seed " + seed + ").");
+    }
+}